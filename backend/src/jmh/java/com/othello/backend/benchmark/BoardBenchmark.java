@@ -0,0 +1,104 @@
+package com.othello.backend.benchmark;
+
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.MoveCommand;
+import com.othello.backend.engine.MoveGenerator;
+import com.othello.backend.engine.MoveResult;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.OthelloBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board primitives and move commands over the position corpus. Each invocation moves
+ * on to the next position, so no benchmark runs on one board the JIT can specialise for.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private Othello[] games;
+    private OthelloBoard[] boards;
+    private Move[] moves;
+    private char[] players;
+    private final MoveGenerator generator = new MoveGenerator();
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<Othello> corpus = Positions.games();
+        List<Move> nextMoves = Positions.nextMoves(corpus);
+        games = corpus.toArray(new Othello[0]);
+        moves = nextMoves.toArray(new Move[0]);
+        boards = new OthelloBoard[games.length];
+        players = new char[games.length];
+        for (int i = 0; i < games.length; i++) {
+            boards[i] = games[i].getBoard();
+            players[i] = games[i].getWhosTurn();
+        }
+    }
+
+    private int index() {
+        next = (next + 1) & (Positions.SIZE - 1);
+        return next;
+    }
+
+    @Benchmark
+    public OthelloBoard copy() {
+        return new OthelloBoard(boards[index()]);
+    }
+
+    /** A fresh copy has no cached move masks, so this pays for generating them; subtract copy(). */
+    @Benchmark
+    public char copyAndHasMove() {
+        return new OthelloBoard(boards[index()]).hasMove();
+    }
+
+    /** Repeated calls on one board, as the game loop makes them, hit the cached move masks. */
+    @Benchmark
+    public char hasMove() {
+        return boards[index()].hasMove();
+    }
+
+    @Benchmark
+    public boolean isValidMove() {
+        int i = index();
+        return boards[i].isValidMove(players[i], moves[i]);
+    }
+
+    /** Lists every legal move with its flips, as GreedyStrategy and RandomStrategy do each turn. */
+    @Benchmark
+    public int generateMoves() {
+        int i = index();
+        return generator.generate(boards[i], players[i]);
+    }
+
+    /** move() changes the board, so it runs on a copy; subtract copy(). */
+    @Benchmark
+    public boolean copyAndMove() {
+        int i = index();
+        return new OthelloBoard(boards[i]).move(moves[i].getRow(), moves[i].getCol(), players[i]);
+    }
+
+    @Benchmark
+    public MoveResult moveCommandExecuteUndo() {
+        int i = index();
+        MoveCommand command = new MoveCommand(games[i], moves[i], players[i]);
+        command.execute();
+        return command.undo();
+    }
+}
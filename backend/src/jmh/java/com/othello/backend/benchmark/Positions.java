@@ -0,0 +1,58 @@
+package com.othello.backend.benchmark;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.OthelloBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The fixed corpus of mid-game positions every benchmark runs over. The positions come
+ * from seeded random games, so every run and every benchmark sees the same ones.
+ */
+final class Positions {
+    static final int SIZE = 64;
+    private static final long SEED = 20240101L;
+    private static final int MIN_PLIES = 16;
+    private static final int MAX_PLIES = 40;
+
+    private Positions() {}
+
+    /**
+     * Returns SIZE games, each stopped between MIN_PLIES and MAX_PLIES moves in with moves left to play.
+     */
+    static List<Othello> games() {
+        SplittableRandom rng = new SplittableRandom(SEED);
+        List<Othello> games = new ArrayList<>(SIZE);
+        while (games.size() < SIZE) {
+            Othello game = new Othello();
+            int plies = MIN_PLIES + rng.nextInt(MAX_PLIES - MIN_PLIES + 1);
+            for (int ply = 0; ply < plies && !game.isGameOver(); ply++) {
+                char turn = game.getWhosTurn();
+                game.move(turn, randomMove(game.getBoard(), turn, rng));
+            }
+            if (!game.isGameOver()) games.add(game);
+        }
+        return games;
+    }
+
+    /**
+     * Returns the moves of the games to play next: one legal move of the side to move in each.
+     */
+    static List<Move> nextMoves(List<Othello> games) {
+        SplittableRandom rng = new SplittableRandom(SEED + 1);
+        List<Move> moves = new ArrayList<>(games.size());
+        for (Othello game : games) moves.add(randomMove(game.getBoard(), game.getWhosTurn(), rng));
+        return moves;
+    }
+
+    private static Move randomMove(OthelloBoard board, char player, SplittableRandom rng) {
+        long moves = board.legalMoves(player);
+        for (int n = rng.nextInt(Long.bitCount(moves)); n > 0; n--) moves &= moves - 1;
+        int square = Long.numberOfTrailingZeros(moves);
+        return new Move(BitBoard.row(square), BitBoard.col(square));
+    }
+}
@@ -0,0 +1,78 @@
+package com.othello.backend.benchmark;
+
+import com.othello.backend.api.dto.MoveResponseDTO;
+import com.othello.backend.api.service.AiMoveExecutor;
+import com.othello.backend.api.service.GameService;
+import com.othello.backend.api.service.GameSessionStore;
+import com.othello.backend.api.service.GameEventService;
+import com.othello.backend.api.service.GameJournal;
+import com.othello.backend.api.service.WinProbabilityService;
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.strategy.StrategyFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full move request through GameService: the player's move, the Greedy reply and
+ * the MoveResponseDTOs for both, without the HTTP layer. Each invocation plays one
+ * opening move into a new game and deletes it again, so the service's state does not grow.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final String USER = "benchmark";
+    private WinProbabilityService winProbability;
+    private AiMoveExecutor aiMoves;
+    private GameSessionStore sessions;
+    private GameService service;
+    private int[] openingSquares;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        winProbability = new WinProbabilityService(400, 200, 1, 64, 65536);
+        aiMoves = new AiMoveExecutor(1, 16, 10000);
+        sessions = new GameSessionStore(30, 10000, Long.MAX_VALUE, "", 24, 30, new GameJournal("", 0, false, 0, 1), new StrategyFactory());
+        service = new GameService(sessions, winProbability, aiMoves, new GameEventService(0, 64), 20000);
+        OthelloBoard start = new OthelloBoard(8);
+        long moves = start.legalMoves(OthelloBoard.P1);
+        openingSquares = new int[Long.bitCount(moves)];
+        for (int i = 0; moves != 0; moves &= moves - 1) openingSquares[i++] = Long.numberOfTrailingZeros(moves);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        winProbability.shutdown();
+        aiMoves.shutdown();
+        sessions.shutdown();
+    }
+
+    @Benchmark
+    public List<MoveResponseDTO> makeMoveRoundTrip() {
+        int square = openingSquares[next++ % openingSquares.length];
+        service.createNewGameEngine(USER, "Greedy");
+        try {
+            return service.makeMove(USER, BitBoard.row(square), BitBoard.col(square));
+        } finally {
+            service.deleteGameEngine(USER);
+        }
+    }
+}
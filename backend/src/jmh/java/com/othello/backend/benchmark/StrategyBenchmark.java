@@ -0,0 +1,62 @@
+package com.othello.backend.benchmark;
+
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.Position;
+import com.othello.backend.strategy.GreedyStrategy;
+import com.othello.backend.strategy.RandomStrategy;
+import com.othello.backend.strategy.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move choice of the cheap strategies over the position corpus. As in the server, one
+ * strategy instance serves every position and the caller keeps one SearchContext.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+    // The endgame solver is off, so late positions time the move choice and not a solve
+    private final GreedyStrategy greedy = new GreedyStrategy(0, 0);
+    private final RandomStrategy random = new RandomStrategy(0, 0);
+    private final SearchContext context = new SearchContext(1);
+    private Position[] positions;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<Othello> corpus = Positions.games();
+        positions = new Position[corpus.size()];
+        for (int i = 0; i < corpus.size(); i++) positions[i] = Position.of(corpus.get(i));
+    }
+
+    private int index() {
+        next = (next + 1) & (Positions.SIZE - 1);
+        return next;
+    }
+
+    @Benchmark
+    public Move greedyGetMove() {
+        return greedy.getMove(positions[index()], context);
+    }
+
+    @Benchmark
+    public Move randomGetMove() {
+        return random.getMove(positions[index()], context);
+    }
+}
@@ -0,0 +1,27 @@
+package com.othello.backend.api.config;
+
+import com.othello.backend.engine.OpeningBook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Maps the opening book into memory at startup and installs it as the book every
+ * strategy shares. Without a book file the strategies simply search every move.
+ */
+@Component
+public class OpeningBookLoader {
+
+    public OpeningBookLoader(@Value("${othello.opening-book.path:}") String path) {
+        if (path.isBlank() || !Files.exists(Path.of(path))) return;
+        try {
+            OpeningBook.setShared(OpeningBook.load(Path.of(path)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the opening book " + path, e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.othello.backend.api.config;
+
+import com.othello.backend.strategy.PatternEvaluator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Loads the trained pattern weights at startup and installs them for every search.
+ * Without a weights file the searches use the built-in hand-written evaluation.
+ */
+@Component
+public class PatternWeightsLoader {
+
+    public PatternWeightsLoader(@Value("${othello.pattern-weights.path:}") String path) {
+        if (path.isBlank() || !Files.exists(Path.of(path))) return;
+        try {
+            PatternEvaluator.setShared(PatternEvaluator.load(Path.of(path)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the pattern weights " + path, e);
+        }
+    }
+}
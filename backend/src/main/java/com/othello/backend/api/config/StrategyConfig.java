@@ -0,0 +1,21 @@
+package com.othello.backend.api.config;
+
+import com.othello.backend.strategy.StrategyFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Builds the one StrategyFactory the games and the analysis streams share, with the
+ * endgame settings from the othello.strategy properties.
+ */
+@Configuration
+public class StrategyConfig {
+
+    @Bean
+    public StrategyFactory strategyFactory(
+            @Value("${othello.strategy.endgame-empties:16}") int endgameEmpties,
+            @Value("${othello.strategy.endgame-solve-millis:500}") long solveMillis) {
+        return new StrategyFactory(endgameEmpties, solveMillis);
+    }
+}
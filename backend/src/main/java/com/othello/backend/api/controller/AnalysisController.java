@@ -0,0 +1,33 @@
+package com.othello.backend.api.controller;
+
+import com.othello.backend.api.service.AnalysisService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/v1/analysis")
+@CrossOrigin
+public class AnalysisController {
+    @Autowired
+    private AnalysisService analysisService;
+
+    // Streams one NDJSON result per position, in order, while the positions are still being uploaded.
+    // Positions are NDJSON lines or, as application/octet-stream, AnalysisService.BINARY_POSITION_BYTES records
+    @PostMapping(consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void analyze(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(value = "strategy", defaultValue = "AlphaBeta") String strategy,
+            InputStream body,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        analysisService.analyze(body, contentType.startsWith(MediaType.APPLICATION_OCTET_STREAM_VALUE), strategy,
+                response.getOutputStream());
+    }
+}
@@ -1,13 +1,20 @@
 package com.othello.backend.api.controller;
 
 import com.othello.backend.api.service.GameService;
+import com.othello.backend.engine.Move;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.othello.backend.api.dto.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+// Game states are JSON, or CompactMoveResponse's binary form for clients that Accept it
 @RestController
 @RequestMapping("/api/v1/games")
 @CrossOrigin
@@ -23,25 +30,77 @@ public class GameController {
     }
 
     @GetMapping("/state")
-    public ResponseEntity<MoveResponseDTO> getState(@RequestHeader("X-User-ID") String userId) {
-        return ResponseEntity.ok(gameService.getGameEngine(userId));
+    public ResponseEntity<?> getState(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return respond(HttpStatus.OK, accept, List.of(gameService.getGameEngine(userId)), false);
     }
 
     @PostMapping("/move")
-    public ResponseEntity<List<MoveResponseDTO>> move(
+    public ResponseEntity<?> move(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestBody MoveRequestDTO request) {
+        return respond(HttpStatus.OK, accept, gameService.makeMove(userId, request.getRow(), request.getColumn()), true);
+    }
+
+    // Plays the player's move only; the computer's reply is fetched from /state/next
+    @PostMapping("/move/async")
+    public ResponseEntity<?> moveAsync(
             @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
             @RequestBody MoveRequestDTO request) {
-        return ResponseEntity.ok(gameService.makeMove(userId, request.getRow(), request.getColumn()));
+        MoveResponseDTO state = gameService.makeMoveAsync(userId, request.getRow(), request.getColumn());
+        return respond(HttpStatus.ACCEPTED, accept, List.of(state), false);
+    }
+
+    // Plays a sequence of moves, or a transcript such as "f5d6c3", for whichever side is to move, in one request
+    @PostMapping("/replay")
+    public ResponseEntity<ReplayResponseDTO> replay(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestBody ReplayRequestDTO request) {
+        List<Move> moves = (request.getMoves() != null) ? GameService.toMoves(request.getMoves())
+                : (request.getTranscript() != null) ? GameService.parseTranscript(request.getTranscript())
+                : List.of();
+        return ResponseEntity.ok(gameService.replayMoves(userId, moves));
+    }
+
+    // Long poll: answers as soon as the game's version is past `after`, or with the current state on timeout
+    @GetMapping("/state/next")
+    public CompletableFuture<ResponseEntity<?>> nextState(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam("after") long after) {
+        return gameService.awaitState(userId, after).thenApply(state -> respond(HttpStatus.OK, accept, List.of(state), false));
+    }
+
+    // Server-Sent Events of the game's moves, search progress and end. EventSource cannot set
+    // headers, so browsers pass the user id as a query parameter instead
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(
+            @RequestHeader(value = "X-User-ID", required = false) String userId,
+            @RequestParam(value = "userId", required = false) String userIdParam) {
+        return gameService.subscribe((userId != null) ? userId : userIdParam);
     }
 
     @PostMapping("/undo")
-    public ResponseEntity<List<MoveResponseDTO>> undoMove(@RequestHeader("X-User-ID")  String userId) {
-        return ResponseEntity.ok(gameService.undoMove(userId));
+    public ResponseEntity<?> undoMove(
+            @RequestHeader("X-User-ID")  String userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return respond(HttpStatus.OK, accept, gameService.undoMove(userId), true);
     }
 
     @PostMapping("/redo")
-    public ResponseEntity<List<MoveResponseDTO>> redoMove(@RequestHeader("X-User-ID") String userId) {
-        return ResponseEntity.ok(gameService.redoMove(userId));
+    public ResponseEntity<?> redoMove(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return respond(HttpStatus.OK, accept, gameService.redoMove(userId), true);
+    }
+
+    // Counts of live, evicted, spilled and rehydrated games
+    @GetMapping("/metrics")
+    public ResponseEntity<SessionMetricsDTO> metrics() {
+        return ResponseEntity.ok(gameService.getSessionMetrics());
     }
 
     @DeleteMapping
@@ -49,4 +108,13 @@ public class GameController {
         gameService.deleteGameEngine(userId);
         return ResponseEntity.noContent().build();
     }
+
+    // The JSON form of a single state is the state itself, of several a list; the binary form is always a list
+    private static ResponseEntity<?> respond(HttpStatus status, String accept, List<MoveResponseDTO> states, boolean list) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status).header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (CompactMoveResponse.isAccepted(accept)) {
+            return response.contentType(CompactMoveResponse.MEDIA_TYPE).body(CompactMoveResponse.encode(states));
+        }
+        return response.body(list ? states : states.get(0));
+    }
 }
@@ -0,0 +1,15 @@
+package com.othello.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+// One line of an analysis stream
+@Getter
+@Setter
+@AllArgsConstructor
+public class AnalysisRequestDTO {
+    private String id; // echoed in the result, optional
+    private String board; // 64 squares row by row: X, O, or ' ', '-' or '.' for empty; '/' between rows is ignored
+    private char toMove;
+}
@@ -0,0 +1,19 @@
+package com.othello.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// The analysis of one position, in the order the positions came in
+@Getter
+@AllArgsConstructor
+public class AnalysisResultDTO {
+    private final long index; // the position's place in the input, from 0
+    private final String id;
+    private final int legalMoves; // moves of the side to move
+    private final Integer row; // the best move, null if the side to move has none
+    private final Integer column;
+    private final Integer score; // the search's score for the side to move, null for strategies that do not score
+    private final int depth; // the deepest finished search iteration, 0 if not a depth-first search
+    private final long nodes;
+    private final String error; // why the position could not be analysed, null if it was
+}
@@ -0,0 +1,58 @@
+package com.othello.backend.api.dto;
+
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A binary form of MoveResponseDTO for clients that ask for it with Accept. A state
+ * takes 37 bytes, where the JSON form spells out the whole board in about 250.
+ *
+ * Layout, big-endian: a count byte, then per state Player 1's and Player 2's squares as
+ * 64-bit masks (bit row * 8 + column), the version as a long, a flags byte (1 = success,
+ * 2 = game over), the next turn as an ASCII byte, Player 1's win probability in units
+ * of 1/10000 as a short, or -1 while it is not estimated yet, and the move's delta: the
+ * discs it flipped as a mask and the square it was played on as a byte, or 0 and -1 for
+ * a state that does not follow a move. Piece counts are the masks' bit counts; the masks
+ * always hold the whole board, so a client may ignore the delta.
+ */
+public final class CompactMoveResponse {
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.othello.moves";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    static final int STATE_BYTES = 37;
+    private static final int SUCCESS = 1, GAME_OVER = 2;
+
+    private CompactMoveResponse() {
+    }
+
+    /**
+     * Returns whether an Accept header asks for this form.
+     */
+    public static boolean isAccepted(String accept) {
+        if (accept == null || !accept.contains(MEDIA_TYPE_VALUE)) return false;
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            if (type.equalsTypeAndSubtype(MEDIA_TYPE) && type.getQualityValue() > 0) return true;
+        }
+        return false;
+    }
+
+    public static byte[] encode(MoveResponseDTO state) {
+        return encode(List.of(state));
+    }
+
+    public static byte[] encode(List<MoveResponseDTO> states) {
+        ByteBuffer out = ByteBuffer.allocate(1 + states.size() * STATE_BYTES);
+        out.put((byte) states.size());
+        for (MoveResponseDTO state : states) {
+            // The bitboards the state was built from, so the board array is never read
+            Double winProbability = state.getWinProbability();
+            out.putLong(state.p1Bits()).putLong(state.p2Bits()).putLong(state.getVersion());
+            out.put((byte) ((state.isSuccess() ? SUCCESS : 0) | (state.isGameOver() ? GAME_OVER : 0)));
+            out.put((byte) state.getNextTurn());
+            out.putShort((short) ((winProbability == null) ? -1 : Math.round(winProbability * 10000)));
+            out.putLong(state.flipBits()).put((byte) state.placedSquare());
+        }
+        return out.array();
+    }
+}
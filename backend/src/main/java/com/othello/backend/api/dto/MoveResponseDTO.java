@@ -1,7 +1,10 @@
 package com.othello.backend.api.dto;
 
+import com.othello.backend.engine.BitBoard;
 import com.othello.backend.engine.MoveResult;
+import com.othello.backend.engine.OthelloBoard;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -15,6 +18,17 @@ public class MoveResponseDTO {
     private final char[][] board; // simplified version of OthelloBoard
     private final boolean gameOver;
     private final ArrayList<Integer> piecesCount;
+    private Double winProbability; // Player 1's chance of winning, null until it is estimated
+    private long version; // the game's version when this response was built; every change bumps it
+    // The board's bitboards and the move's delta for CompactMoveResponse, which need no getters and so stay out of the JSON
+    @Getter(AccessLevel.NONE)
+    private final long p1Bits;
+    @Getter(AccessLevel.NONE)
+    private final long p2Bits;
+    @Getter(AccessLevel.NONE)
+    private final int placedSquare; // -1 when the state does not follow a move, as after an undo
+    @Getter(AccessLevel.NONE)
+    private final long flipBits;
 
     public MoveResponseDTO(boolean success, char nextTurn, char[][] board, boolean gameOver,  ArrayList<Integer> piecesCount) {
         this.success = success;
@@ -22,6 +36,17 @@ public class MoveResponseDTO {
         this.board = board;
         this.gameOver = gameOver;
         this.piecesCount = piecesCount;
+        long p1 = 0, p2 = 0;
+        for (int r = 0; r < board.length; r++) {
+            for (int c = 0; c < board[r].length; c++) {
+                if (board[r][c] == OthelloBoard.P1) p1 |= BitBoard.bit(r, c);
+                else if (board[r][c] == OthelloBoard.P2) p2 |= BitBoard.bit(r, c);
+            }
+        }
+        this.p1Bits = p1;
+        this.p2Bits = p2;
+        this.placedSquare = -1;
+        this.flipBits = 0;
     }
 
     public MoveResponseDTO(MoveResult result) {
@@ -30,5 +55,31 @@ public class MoveResponseDTO {
         board = result.getGameState().getBoardCopy();
         gameOver = result.isGameOver();
         piecesCount = result.getPiecesCount();
+        p1Bits = result.getGameState().getBits(OthelloBoard.P1);
+        p2Bits = result.getGameState().getBits(OthelloBoard.P2);
+        placedSquare = result.getSquare();
+        flipBits = result.getFlips();
     }
+
+    /**
+     * Copies state, sharing its board, with Player 1's win probability filled in.
+     */
+    public MoveResponseDTO(MoveResponseDTO state, Double winProbability) {
+        success = state.success;
+        nextTurn = state.nextTurn;
+        board = state.board;
+        gameOver = state.gameOver;
+        piecesCount = state.piecesCount;
+        p1Bits = state.p1Bits;
+        p2Bits = state.p2Bits;
+        placedSquare = state.placedSquare;
+        flipBits = state.flipBits;
+        version = state.version;
+        this.winProbability = winProbability;
+    }
+
+    long p1Bits() { return p1Bits; }
+    long p2Bits() { return p2Bits; }
+    int placedSquare() { return placedSquare; }
+    long flipBits() { return flipBits; }
 }
@@ -0,0 +1,16 @@
+package com.othello.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+// The moves to replay, either as row/column pairs or as a transcript such as "f5d6c3d3"; moves win if both are given
+@Getter
+@Setter
+@AllArgsConstructor
+public class ReplayRequestDTO {
+    private List<MoveRequestDTO> moves;
+    private String transcript; // standard notation, column a-h then row 1-8 per move; see GameService.parseTranscript
+}
@@ -0,0 +1,12 @@
+package com.othello.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ReplayResponseDTO {
+    private final MoveResponseDTO state; // the game after the moves that were applied
+    private final int applied; // moves played, from the first one on
+    private final Integer firstIllegalMove; // index of the move replay stopped at, null if every move was played
+}
@@ -0,0 +1,18 @@
+package com.othello.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One progress report of the computer's search, pushed to /events while it thinks
+@Getter
+@AllArgsConstructor
+public class SearchInfoDTO {
+    private final long version; // the version of the game state being searched
+    private final int depth; // the depth reached, 0 for Monte Carlo
+    private final int row; // the best move so far
+    private final int column;
+    private final int score; // alpha-beta score for the computer, 0 for Monte Carlo
+    private final Double winProbability; // Player 1's chance of winning, null if not known yet
+    private final long nodes;
+    private final long elapsedMillis;
+}
@@ -0,0 +1,27 @@
+package com.othello.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Counters of GameSessionStore, its GameJournal and the endgame solver; the totals count since the server started
+@Getter
+@AllArgsConstructor
+public class SessionMetricsDTO {
+    private final int liveSessions; // games on the heap
+    private final long estimatedBytes; // rough heap cost of the live games
+    private final long spilledSessions; // games waiting on disk to be rehydrated
+    private final long evictedIdle;
+    private final long evictedForCapacity;
+    private final long spilled;
+    private final long spillFailures; // evicted games that could not be written and were lost
+    private final long rehydrated;
+    private final long rehydrateFailures;
+    private final long expiredSpills; // spilled games deleted unread after the spill TTL
+    private final long journaledEvents;
+    private final long journaledBytes;
+    private final long journalCommits; // fsynced frames; events per commit is the group-commit batch size
+    private final long journalFailures; // events, frames or snapshots that could not be written
+    private final long recoveryMillis; // time to recover the journal at startup
+    private final double endgameNodesPerSecond; // over every exact endgame solve, by any strategy or estimate
+    private final double worstEndgameSolveMillis;
+}
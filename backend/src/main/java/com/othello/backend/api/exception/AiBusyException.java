@@ -0,0 +1,11 @@
+package com.othello.backend.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AiBusyException extends RuntimeException {
+    public AiBusyException(String strategy) {
+        super("Too many " + strategy + " moves are waiting, try again shortly.");
+    }
+}
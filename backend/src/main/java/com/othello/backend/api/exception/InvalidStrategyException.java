@@ -0,0 +1,11 @@
+package com.othello.backend.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidStrategyException extends RuntimeException {
+    public InvalidStrategyException(String strategy) {
+        super("Unknown strategy " + strategy);
+    }
+}
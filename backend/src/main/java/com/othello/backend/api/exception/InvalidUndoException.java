@@ -1,5 +1,9 @@
 package com.othello.backend.api.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class InvalidUndoException extends RuntimeException {
     public InvalidUndoException() {
         super("Invalid undo");
@@ -0,0 +1,89 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.api.exception.AiBusyException;
+import com.othello.backend.strategy.StrategyFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Computes AI moves off the request threads.
+ *
+ * Each strategy has its own small pool and bounded queue, so a backlog of slow searches
+ * never delays the cheap strategies or the web server. Work is refused instead of
+ * queued without limit: submit() throws AiBusyException when the strategy's queue is
+ * full, and a task that waited longer than the configured limit fails with it instead
+ * of running for a client that has likely given up.
+ */
+@Service
+public class AiMoveExecutor {
+    private final Map<String, ThreadPoolExecutor> executors = new HashMap<>();
+    private final long maxWaitNanos;
+
+    public AiMoveExecutor(
+            @Value("${othello.ai.threads-per-strategy:2}") int threads,
+            @Value("${othello.ai.queue-capacity:16}") int queueCapacity,
+            @Value("${othello.ai.max-wait-millis:10000}") long maxWaitMillis) {
+        this.maxWaitNanos = maxWaitMillis * 1_000_000;
+        for (String strategy : StrategyFactory.PRODUCTS) {
+            AtomicInteger count = new AtomicInteger();
+            executors.put(strategy, new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), r -> {
+                        Thread t = new Thread(r, "ai-" + strategy + "-" + count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }, new ThreadPoolExecutor.AbortPolicy()));
+        }
+    }
+
+    /**
+     * Returns whether strategy's queue has room for another move right now.
+     */
+    public boolean hasCapacity(String strategy) {
+        ThreadPoolExecutor executor = executors.get(strategy);
+        return executor != null && executor.getQueue().remainingCapacity() > 0;
+    }
+
+    /**
+     * Runs task on strategy's pool and returns its eventual result.
+     *
+     * @throws AiBusyException if the strategy's queue is full
+     */
+    public <T> CompletableFuture<T> submit(String strategy, Supplier<T> task) {
+        ThreadPoolExecutor executor = executors.get(strategy);
+        if (executor == null) throw new IllegalArgumentException("Unknown strategy " + strategy);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queued = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                if (System.nanoTime() - queued > maxWaitNanos) {
+                    future.completeExceptionally(new AiBusyException(strategy));
+                    return;
+                }
+                try {
+                    future.complete(task.get());
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new AiBusyException(strategy);
+        }
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+}
@@ -0,0 +1,255 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.api.dto.AnalysisRequestDTO;
+import com.othello.backend.api.dto.AnalysisResultDTO;
+import com.othello.backend.api.exception.AiBusyException;
+import com.othello.backend.api.exception.InvalidStrategyException;
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.Position;
+import com.othello.backend.strategy.SearchContext;
+import com.othello.backend.strategy.Strategy;
+import com.othello.backend.strategy.StrategyFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analyses streams of positions without a game: the legal-move count, the best move
+ * and, for the alpha-beta strategies, its score.
+ *
+ * Positions are read one at a time and searched on a shared worker pool, with at most
+ * a window of them in flight per stream. Results are written in input order as soon as
+ * the oldest one is done, so a slow search holds back the output but never the workers,
+ * and memory stays at one window whatever the length of the stream. Reading stops while
+ * the window is full, so a client that reads slowly slows down its own input.
+ *
+ * A position that cannot be read or searched gets a result with an error, and the
+ * stream carries on. So does a line longer than MAX_LINE_CHARS, which is skipped
+ * without being held in memory.
+ *
+ * The pool's queue is bounded. A stream whose first position finds it full is refused
+ * with AiBusyException before anything is written; later on, a stream waits for its own
+ * oldest result and tries again, and with nothing of its own in flight it searches the
+ * position on its own thread, so no position is dropped.
+ */
+@Service
+public class AnalysisService {
+    // Binary input: Player 1's squares, Player 2's squares, then the side to move as an ASCII byte
+    public static final int BINARY_POSITION_BYTES = 17;
+    public static final int MAX_LINE_CHARS = 8192;
+
+    // Strategies are stateless; each search gets its own SearchContext with the analysis time budget
+    private final StrategyFactory factory;
+    private final ObjectMapper mapper;
+    private final ThreadPoolExecutor workers;
+    private final int window;
+    private final long timeBudgetMillis;
+
+    public AnalysisService(
+            ObjectMapper mapper,
+            @Value("${othello.analysis.threads:2}") int threads,
+            @Value("${othello.analysis.window:64}") int window,
+            @Value("${othello.analysis.queue-capacity:256}") int queueCapacity,
+            @Value("${othello.analysis.time-budget-millis:100}") long timeBudgetMillis,
+            StrategyFactory factory) {
+        this.mapper = mapper;
+        this.factory = factory;
+        this.window = window;
+        this.timeBudgetMillis = timeBudgetMillis;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "analysis-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Analyses every position of in with the named strategy and writes one NDJSON result
+     * line per position to out, in input order.
+     *
+     * @param binary whether in holds BINARY_POSITION_BYTES records instead of NDJSON lines
+     * @throws InvalidStrategyException if strategyName names no strategy
+     * @throws AiBusyException if the workers' queue is full when the first position arrives
+     * @throws IOException if the request cannot be read or the response written; the
+     *         positions still waiting are then dropped
+     */
+    public void analyze(InputStream in, boolean binary, String strategyName, OutputStream out) throws IOException {
+        Strategy strategy = factory.getStrategy(strategyName);
+        if (strategy == null) throw new InvalidStrategyException(strategyName);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ArrayDeque<Future<AnalysisResultDTO>> inFlight = new ArrayDeque<>(window);
+        try {
+            if (binary) {
+                DataInputStream records = new DataInputStream(in);
+                for (long index = 0; ; index++) {
+                    long p1, p2;
+                    char toMove;
+                    try {
+                        p1 = records.readLong();
+                        p2 = records.readLong();
+                        toMove = (char) records.readUnsignedByte();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    boolean valid = (p1 & p2) == 0 && (toMove == OthelloBoard.P1 || toMove == OthelloBoard.P2);
+                    Position position = valid ? new Position(BitBoard.WIDTH, p1, p2, toMove) : null;
+                    submit(inFlight, strategy, strategyName, index, null, position, valid ? null : "Invalid position", writer);
+                }
+            } else {
+                Reader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                StringBuilder line = new StringBuilder();
+                long index = 0;
+                for (long length = readLine(lines, line); length >= 0; length = readLine(lines, line)) {
+                    if (line.toString().isBlank()) continue;
+                    String id = null;
+                    Position position = null;
+                    String error = null;
+                    if (length > MAX_LINE_CHARS) {
+                        error = "Line longer than " + MAX_LINE_CHARS + " characters";
+                    } else {
+                        try {
+                            AnalysisRequestDTO request = mapper.readValue(line.toString(), AnalysisRequestDTO.class);
+                            id = request.getId();
+                            position = toPosition(request);
+                        } catch (JacksonException | IllegalArgumentException e) {
+                            error = e.getMessage();
+                        }
+                    }
+                    submit(inFlight, strategy, strategyName, index++, id, position, error, writer);
+                }
+            }
+            while (!inFlight.isEmpty()) writeOldest(inFlight, writer);
+            writer.flush();
+        } finally {
+            for (Future<AnalysisResultDTO> pending : inFlight) pending.cancel(true);
+        }
+    }
+
+    // Queues a position, first writing the oldest results while the window or the workers' queue is full
+    private void submit(ArrayDeque<Future<AnalysisResultDTO>> inFlight, Strategy strategy, String strategyName,
+                        long index, String id, Position position, String error, Writer writer) throws IOException {
+        while (inFlight.size() >= window) writeOldest(inFlight, writer);
+        while (true) {
+            try {
+                inFlight.add(workers.submit(() -> analyze(strategy, index, id, position, error)));
+                return;
+            } catch (RejectedExecutionException e) {
+                if (index == 0) throw new AiBusyException(strategyName); // nothing written yet, so a 503
+                if (inFlight.isEmpty()) { // nothing of ours to wait for, so search it here
+                    inFlight.add(CompletableFuture.completedFuture(analyze(strategy, index, id, position, error)));
+                    return;
+                }
+                writeOldest(inFlight, writer);
+            }
+        }
+    }
+
+    private void writeOldest(ArrayDeque<Future<AnalysisResultDTO>> inFlight, Writer writer) throws IOException {
+        Future<AnalysisResultDTO> oldest = inFlight.peek();
+        if (!oldest.isDone()) writer.flush(); // send what is done before waiting
+        AnalysisResultDTO result;
+        try {
+            result = oldest.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while analysing", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause()); // analyze() returns errors as results
+        }
+        inFlight.poll();
+        writer.write(mapper.writeValueAsString(result));
+        writer.write('\n');
+    }
+
+    /**
+     * Reads the next line into line, keeping no more than MAX_LINE_CHARS of it.
+     *
+     * @return the full length of the line without its terminator, or -1 at the end of the input
+     */
+    private static long readLine(Reader in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int c = in.read();
+        if (c < 0) return -1;
+        long length = 0;
+        for (; c >= 0 && c != '\n'; c = in.read()) {
+            if (length++ < MAX_LINE_CHARS + 1) line.append((char) c); // one over, to see a line ending in \r
+        }
+        if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+            length--;
+        }
+        return length;
+    }
+
+    private AnalysisResultDTO analyze(Strategy strategy, long index, String id, Position position, String error) {
+        if (position == null) return new AnalysisResultDTO(index, id, 0, null, null, null, 0, 0, error);
+        try {
+            int legalMoves = Long.bitCount(position.legalMoves());
+            SearchContext context = new SearchContext();
+            context.setTimeBudgetMillis(timeBudgetMillis);
+            Move best = (legalMoves == 0) ? null : strategy.getMove(position, context);
+            return new AnalysisResultDTO(index, id, legalMoves,
+                    (best == null) ? null : best.getRow(), (best == null) ? null : best.getCol(),
+                    (context.getDepth() > 0) ? context.getScore() : null, context.getDepth(),
+                    context.getNodes() + context.getPlayouts(), null);
+        } catch (RuntimeException e) {
+            return new AnalysisResultDTO(index, id, 0, null, null, null, 0, 0, e.toString());
+        }
+    }
+
+    private static Position toPosition(AnalysisRequestDTO request) {
+        if (request.getBoard() == null) throw new IllegalArgumentException("No board");
+        String squares = request.getBoard().replace("/", "");
+        if (squares.length() != BitBoard.WIDTH * BitBoard.WIDTH) {
+            throw new IllegalArgumentException("A board has 64 squares, not " + squares.length());
+        }
+        char toMove = request.getToMove();
+        if (toMove != OthelloBoard.P1 && toMove != OthelloBoard.P2) {
+            throw new IllegalArgumentException("toMove must be X or O");
+        }
+        long p1 = 0, p2 = 0;
+        for (int square = 0; square < squares.length(); square++) {
+            char c = squares.charAt(square);
+            if (c == OthelloBoard.P1) p1 |= 1L << square;
+            else if (c == OthelloBoard.P2) p2 |= 1L << square;
+            else if (c != OthelloBoard.EMPTY && c != '-' && c != '.') {
+                throw new IllegalArgumentException("Unknown square '" + c + "'");
+            }
+        }
+        return new Position(BitBoard.WIDTH, p1, p2, toMove);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,173 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.api.dto.MoveResponseDTO;
+import com.othello.backend.api.dto.SearchInfoDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Pushes game events to the browsers watching a game, as Server-Sent Events.
+ *
+ * Events are "move" with the new state after every change of the game, "search" with
+ * the progress of the computer's search, and "game-over" with the final state. A new
+ * subscriber first gets the current state as a "move", so a client that reconnects
+ * catches up; states carry the game's version, and a client ignores any it has seen.
+ *
+ * Events are published while the game is held and from inside the computer's search,
+ * so publishing only queues them. Each subscriber has a bounded queue, drained by a
+ * virtual thread that does the blocking writes, one subscriber's events in order. A
+ * subscriber whose connection fails, or whose queue fills up because it reads too
+ * slowly, is dropped; EventSource reconnects by itself and starts from the current state.
+ */
+@Service
+public class GameEventService {
+    public static final String MOVE = "move";
+    public static final String SEARCH = "search";
+    public static final String GAME_OVER = "game-over";
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-", 0).factory());
+    private final long timeoutMillis;
+    private final int queueCapacity;
+
+    public GameEventService(
+            @Value("${othello.events.timeout-millis:600000}") long timeoutMillis,
+            @Value("${othello.events.queue-capacity:64}") int queueCapacity) {
+        this.timeoutMillis = timeoutMillis;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Opens a stream of userId's game events, starting with current.
+     */
+    public SseEmitter subscribe(String userId, Supplier<MoveResponseDTO> current) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        // Registered before the current state is read, so no change can fall in between
+        subscribers.compute(userId, (id, list) -> {
+            if (list == null) list = new CopyOnWriteArrayList<>();
+            list.add(subscriber);
+            return list;
+        });
+        subscriber.offer(MOVE, current.get());
+        return emitter;
+    }
+
+    public boolean hasSubscribers(String userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    public void publishMove(String userId, MoveResponseDTO state) {
+        publish(userId, MOVE, state);
+        if (state.isGameOver()) publish(userId, GAME_OVER, state);
+    }
+
+    public void publishSearch(String userId, SearchInfoDTO info) {
+        publish(userId, SEARCH, info);
+    }
+
+    /**
+     * Ends every stream of userId's game, when the game is deleted.
+     */
+    public void close(String userId) {
+        List<Subscriber> list = subscribers.remove(userId);
+        if (list != null) list.forEach(Subscriber::drop);
+    }
+
+    private void publish(String userId, String name, Object data) {
+        List<Subscriber> list = subscribers.get(userId);
+        if (list == null) return;
+        for (Subscriber subscriber : list) subscriber.offer(name, data);
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * One open stream: the events waiting to be written to it, and whether a sender is
+     * writing them.
+     */
+    private final class Subscriber {
+        final String userId;
+        final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean dropped;
+
+        Subscriber(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        // Never blocks: the caller may hold the game
+        void offer(String name, Object data) {
+            synchronized (this) {
+                if (dropped) return;
+                if (pending.size() >= queueCapacity) {
+                    dropLocked(); // fallen too far behind
+                    return;
+                }
+                pending.add(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+                if (sending) return;
+                sending = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = pending.poll();
+                    if (event == null || dropped) {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    drop(); // the client went away
+                }
+            }
+        }
+
+        synchronized void drop() {
+            dropLocked();
+        }
+
+        private void dropLocked() {
+            if (dropped) return;
+            dropped = true;
+            pending.clear();
+            remove(this);
+            // Completing may wait for a send in progress, so it is left to a sender too
+            senders.execute(emitter::complete);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+}
@@ -0,0 +1,664 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.engine.MoveCommand;
+import com.othello.backend.engine.OthelloGameEngine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Makes games survive a restart by writing every change to an append-only journal.
+ *
+ * Requests only put their events on a queue and never wait for the disk. One writer
+ * thread drains whatever has queued up, writes it as one checksummed frame and fsyncs
+ * once for the lot, so the fsync cost is shared by every change that arrived while the
+ * previous one ran. An event takes a few bytes: an opcode, the game's number as a
+ * varint and, for a move, one byte in the SpilledGame encoding.
+ *
+ * The journal is split into segments. The writer keeps its own compact copy of every
+ * game, so it can write a snapshot of all of them at any frame boundary without
+ * stopping a request: periodically it starts a new segment, writes the snapshot of
+ * everything before it and deletes the older segments.
+ *
+ * On startup the newest snapshot is loaded and the segments after it are memory-mapped
+ * and decoded in parallel. A record only touches its own game, so the records are then
+ * grouped by game and the games replayed in parallel, each in journal order. A torn
+ * frame at the end of a segment, left by a crash, ends that segment. GameSessionStore
+ * then rebuilds the recovered games in parallel. Changes made in the last moments
+ * before a crash, not yet fsynced, are lost.
+ */
+@Service
+public class GameJournal {
+    static final int SEGMENT_MAGIC = 0x4f4a4e4c; // "OJNL"
+    static final int SNAPSHOT_MAGIC = 0x4f534e50; // "OSNP"
+    static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 8; // magic, format version
+    private static final int FRAME_HEADER_BYTES = 8; // payload length, CRC32C of the payload
+    private static final String SEGMENT_PREFIX = "segment-", SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-", SNAPSHOT_SUFFIX = ".snap";
+
+    // Record opcodes; COMMIT_BIT on a change's opcode means it also published a new version
+    static final int CREATE = 1, MOVE = 2, UNDO = 3, REDO = 4, COMMIT = 5, DELETE = 6;
+    static final int COMMIT_BIT = 0x80;
+
+    private final Path dir; // null when journaling is off
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final long snapshotIntervalNanos;
+    private final BlockingQueue<Event> queue;
+    private final Thread writer;
+    private volatile boolean running;
+
+    // Owned by the writer thread once it has started
+    private final Map<String, JournalGame> games = new HashMap<>();
+    private int nextGameId;
+    private long segmentSeq;
+    private FileChannel segment;
+    private long segmentSize;
+    private long lastSnapshotNanos;
+    private List<SpilledGame> recovered = List.of();
+
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long recoveryMillis;
+
+    public GameJournal(
+            @Value("${othello.journal.dir:}") String dir,
+            @Value("${othello.journal.segment-bytes:67108864}") long segmentBytes,
+            @Value("${othello.journal.fsync:true}") boolean fsync,
+            @Value("${othello.journal.snapshot-interval-minutes:10}") long snapshotIntervalMinutes,
+            @Value("${othello.journal.queue-capacity:65536}") int queueCapacity) {
+        this.dir = dir.isBlank() ? null : Path.of(dir);
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.snapshotIntervalNanos = TimeUnit.MINUTES.toNanos(snapshotIntervalMinutes);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::run, "game-journal");
+        writer.setDaemon(true);
+        if (this.dir == null) return;
+
+        try {
+            long start = System.nanoTime();
+            Files.createDirectories(this.dir);
+            boolean replayed = recover();
+            openSegment(segmentSeq);
+            // Snapshot right away after replaying segments, so the next start is quicker
+            lastSnapshotNanos = replayed ? System.nanoTime() - snapshotIntervalNanos : System.nanoTime();
+            recoveryMillis = (System.nanoTime() - start) / 1_000_000;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the game journal in " + dir, e);
+        }
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Returns the games found by recovery, once; GameSessionStore rebuilds them at startup.
+     */
+    List<SpilledGame> takeRecovered() {
+        List<SpilledGame> games = recovered;
+        recovered = List.of();
+        return games;
+    }
+
+    /**
+     * Returns the recorder for userId's game, to be set as its engine's listener once
+     * the engine holds the game's current state.
+     */
+    Recorder recorder(String userId) {
+        return new Recorder(userId);
+    }
+
+    void created(String userId, String strategy) {
+        append(new Event(CREATE, userId, strategy, (byte) 0));
+    }
+
+    void deleted(String userId) {
+        append(new Event(DELETE, userId, null, (byte) 0));
+    }
+
+    long getEvents() { return events.get(); }
+    long getBytes() { return bytes.get(); }
+    long getCommits() { return commits.get(); }
+    long getFailures() { return failures.get(); }
+    long getRecoveryMillis() { return recoveryMillis; }
+
+    /**
+     * Records the changes of one game. Its calls come from the game's writer, so they
+     * are journaled in the order they were made.
+     */
+    final class Recorder implements OthelloGameEngine.Listener {
+        private final String userId;
+
+        private Recorder(String userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void moved(MoveCommand command) {
+            append(new Event(MOVE, userId, null, SpilledGame.encode(command)));
+        }
+
+        @Override
+        public void undone() {
+            append(new Event(UNDO, userId, null, (byte) 0));
+        }
+
+        @Override
+        public void redone() {
+            append(new Event(REDO, userId, null, (byte) 0));
+        }
+
+        /** Records that the game published a new version. */
+        void committed() {
+            append(new Event(COMMIT, userId, null, (byte) 0));
+        }
+    }
+
+    private static final class Event {
+        final int op;
+        final String userId;
+        final String strategy;
+        final byte move;
+
+        Event(int op, String userId, String strategy, byte move) {
+            this.op = op;
+            this.userId = userId;
+            this.strategy = strategy;
+            this.move = move;
+        }
+    }
+
+    /**
+     * The journal's copy of a game: only what SpilledGame needs to rebuild it.
+     */
+    private static final class JournalGame {
+        final int id;
+        final String userId;
+        final String strategy;
+        long version;
+        final byte[] history = new byte[64];
+        final byte[] redo = new byte[64]; // a stack: the last one is redone first
+        int historySize, redoSize;
+
+        JournalGame(int id, String userId, String strategy) {
+            this.id = id;
+            this.userId = userId;
+            this.strategy = strategy;
+        }
+
+        void apply(int op, byte move) {
+            switch (op & ~COMMIT_BIT) {
+                case MOVE -> {
+                    history[historySize++] = move;
+                    redoSize = 0;
+                }
+                case UNDO -> {
+                    if (historySize > 0) redo[redoSize++] = history[--historySize];
+                }
+                case REDO -> {
+                    if (redoSize > 0) history[historySize++] = redo[--redoSize];
+                }
+                default -> { }
+            }
+            if ((op & COMMIT_BIT) != 0 || op == COMMIT) version++;
+        }
+
+        SpilledGame toSpilled() {
+            byte[] redoOrder = new byte[redoSize];
+            for (int i = 0; i < redoSize; i++) redoOrder[i] = redo[redoSize - 1 - i];
+            byte[] played = new byte[historySize];
+            System.arraycopy(history, 0, played, 0, historySize);
+            return new SpilledGame(userId, strategy, version, played, redoOrder);
+        }
+    }
+
+    private void append(Event event) {
+        if (dir == null || !running) return;
+        try {
+            queue.put(event); // waits only when the disk has fallen far behind
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---- writer thread ----
+
+    private void run() {
+        List<Event> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Event first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                    write(batch);
+                    batch.clear();
+                }
+                if (System.nanoTime() - lastSnapshotNanos > snapshotIntervalNanos) snapshot();
+            } catch (InterruptedException e) {
+                // shutdown() stops the loop through running
+            } catch (IOException | RuntimeException e) {
+                // The journal's copies of the games already hold the batch, so a snapshot
+                // right away puts on disk what the lost frame would have
+                failures.incrementAndGet();
+                batch.clear();
+                lastSnapshotNanos = System.nanoTime() - snapshotIntervalNanos;
+            }
+        }
+        try {
+            snapshot();
+            segment.close();
+        } catch (IOException e) {
+            failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Encodes batch as one frame, applying each event to the journal's copy of its game,
+     * then writes the frame and syncs it. An event that cannot be journaled is counted as
+     * a failure and left out, and the rest of the batch is written without it.
+     */
+    private void write(List<Event> batch) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(64 + batch.size() * 8);
+        int lastOpPosition = -1; // where the last change's opcode is, if it can take a COMMIT_BIT
+        JournalGame lastGame = null;
+        int written = 0;
+        for (Event e : batch) {
+            if (e.userId == null || (e.op == CREATE && e.strategy == null)) {
+                failures.incrementAndGet();
+                continue;
+            }
+            payload = ensure(payload, 32 + ((e.op == CREATE) ? 4 * (e.userId.length() + e.strategy.length()) : 0));
+            JournalGame game = games.get(e.userId);
+            switch (e.op) {
+                case CREATE -> {
+                    byte[] user = e.userId.getBytes(StandardCharsets.UTF_8);
+                    byte[] strategy = e.strategy.getBytes(StandardCharsets.UTF_8);
+                    if (user.length > 0xffff || strategy.length > 0xff) { // not journaled
+                        failures.incrementAndGet();
+                        continue;
+                    }
+                    if (game != null) { // replaced without a delete; drop the old one on recovery too
+                        payload.put((byte) DELETE);
+                        putVarint(payload, game.id);
+                    }
+                    game = new JournalGame(nextGameId++, e.userId, e.strategy);
+                    games.put(e.userId, game);
+                    payload.put((byte) CREATE);
+                    putVarint(payload, game.id);
+                    payload.putShort((short) user.length).put(user);
+                    payload.put((byte) strategy.length).put(strategy);
+                    lastOpPosition = -1;
+                }
+                case DELETE -> {
+                    if (game == null) continue;
+                    games.remove(e.userId);
+                    payload.put((byte) DELETE);
+                    putVarint(payload, game.id);
+                    lastOpPosition = -1;
+                }
+                case COMMIT -> {
+                    if (game == null) continue;
+                    game.apply(COMMIT, (byte) 0);
+                    if (game == lastGame && lastOpPosition >= 0) {
+                        payload.put(lastOpPosition, (byte) (payload.get(lastOpPosition) | COMMIT_BIT));
+                    } else {
+                        payload.put((byte) COMMIT);
+                        putVarint(payload, game.id);
+                    }
+                    lastOpPosition = -1;
+                }
+                default -> {
+                    if (game == null) continue; // a game from before the journal was on
+                    game.apply(e.op, e.move);
+                    lastOpPosition = payload.position();
+                    payload.put((byte) e.op);
+                    putVarint(payload, game.id);
+                    if (e.op == MOVE) payload.put(e.move);
+                }
+            }
+            lastGame = game;
+            written++;
+        }
+        payload.flip();
+        if (!payload.hasRemaining()) return;
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES).putInt(payload.remaining()).putInt((int) crc.getValue());
+        header.flip();
+        long frameBytes = FRAME_HEADER_BYTES + payload.remaining();
+        if (segmentSize > SEGMENT_HEADER_BYTES && segmentSize + frameBytes > segmentBytes) {
+            try {
+                rollSegment();
+            } catch (IOException e) {
+                failures.incrementAndGet(); // the frame still goes to the current segment, which grows past its size
+            }
+        }
+        ByteBuffer[] frame = {header, payload};
+        while (payload.hasRemaining()) segment.write(frame);
+        if (fsync) segment.force(false);
+        segmentSize += frameBytes;
+        events.addAndGet(written);
+        bytes.addAndGet(frameBytes);
+        commits.incrementAndGet();
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int room) {
+        if (buffer.remaining() >= room) return buffer;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + room));
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    private void openSegment(long seq) throws IOException {
+        segment = createSegment(seq);
+        segmentSeq = seq;
+        segmentSize = SEGMENT_HEADER_BYTES;
+    }
+
+    /**
+     * Moves on to the next segment. The new one is created before the current one is
+     * closed, so if it cannot be, the journal keeps writing to the current one and tries
+     * again at the next roll.
+     */
+    private void rollSegment() throws IOException {
+        segment.force(false);
+        FileChannel next = createSegment(segmentSeq + 1);
+        FileChannel previous = segment;
+        segment = next;
+        segmentSeq++;
+        segmentSize = SEGMENT_HEADER_BYTES;
+        previous.close();
+    }
+
+    // Creates segment seq with its header; a file left half-written is deleted, so seq can be tried again
+    private FileChannel createSegment(long seq) throws IOException {
+        Path file = dir.resolve(segmentName(seq));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES).putInt(SEGMENT_MAGIC).putInt(FORMAT_VERSION);
+            header.flip();
+            while (header.hasRemaining()) channel.write(header);
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a new segment and writes a snapshot of every game as of its start, then
+     * deletes the segments and snapshots it replaces.
+     */
+    private void snapshot() throws IOException {
+        lastSnapshotNanos = System.nanoTime();
+        rollSegment();
+        long seq = segmentSeq;
+        Path file = dir.resolve(snapshotName(seq));
+        Path temporary = dir.resolve(snapshotName(seq) + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary)), crc))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(seq);
+            out.writeInt(nextGameId);
+            out.writeInt(games.size());
+            for (JournalGame game : games.values()) {
+                out.writeInt(game.id);
+                out.writeUTF(game.userId);
+                out.writeUTF(game.strategy);
+                out.writeLong(game.version);
+                out.writeByte(game.historySize);
+                out.write(game.history, 0, game.historySize);
+                out.writeByte(game.redoSize);
+                out.write(game.redo, 0, game.redoSize);
+            }
+            out.flush();
+            out.writeInt((int) crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (Map.Entry<Long, Path> e : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).entrySet()) {
+            if (e.getKey() < seq) Files.deleteIfExists(e.getValue());
+        }
+        for (Map.Entry<Long, Path> e : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).entrySet()) {
+            if (e.getKey() < seq) Files.deleteIfExists(e.getValue());
+        }
+    }
+
+    // ---- recovery, on the constructing thread before the writer starts ----
+
+    /**
+     * Loads the newest readable snapshot and replays the segments after it. Returns
+     * whether any segment was replayed.
+     */
+    private boolean recover() throws IOException {
+        Map<Integer, JournalGame> byId = new HashMap<>();
+        long snapshotSeq = 0;
+        for (Map.Entry<Long, Path> e : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).descendingMap().entrySet()) {
+            byId.clear();
+            nextGameId = 0;
+            if (readSnapshot(e.getValue(), byId)) {
+                snapshotSeq = e.getKey();
+                break;
+            }
+        }
+
+        List<Path> segments = new ArrayList<>();
+        long lastSeq = snapshotSeq - 1;
+        for (Map.Entry<Long, Path> e : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).entrySet()) {
+            if (e.getKey() >= snapshotSeq) segments.add(e.getValue());
+            lastSeq = Math.max(lastSeq, e.getKey());
+        }
+        // Decoding is independent per segment, and replaying is independent per game as
+        // long as each game's records keep the journal's order
+        List<List<Record>> decoded = segments.parallelStream()
+                .map(file -> decodeRecords(readSegment(file))).toList();
+        Map<Integer, List<Record>> byGame = new HashMap<>();
+        for (List<Record> records : decoded) {
+            for (Record record : records) byGame.computeIfAbsent(record.id(), id -> new ArrayList<>()).add(record);
+        }
+        Map<Integer, JournalGame> replayed = new ConcurrentHashMap<>(byId);
+        byGame.entrySet().parallelStream().forEach(e -> {
+            JournalGame game = replay(byId.get(e.getKey()), e.getValue());
+            if (game == null) replayed.remove(e.getKey());
+            else replayed.put(e.getKey(), game);
+        });
+
+        for (JournalGame game : replayed.values()) {
+            games.put(game.userId, game);
+            nextGameId = Math.max(nextGameId, game.id + 1);
+        }
+        segmentSeq = lastSeq + 1;
+        recovered = games.values().stream().map(JournalGame::toSpilled).toList();
+        return !segments.isEmpty();
+    }
+
+    private boolean readSnapshot(Path file, Map<Integer, JournalGame> byId) {
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), crc))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION) return false;
+            in.readLong();
+            nextGameId = in.readInt();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                JournalGame game = new JournalGame(in.readInt(), in.readUTF(), in.readUTF());
+                game.version = in.readLong();
+                game.historySize = in.readUnsignedByte();
+                in.readFully(game.history, 0, game.historySize);
+                game.redoSize = in.readUnsignedByte();
+                in.readFully(game.redo, 0, game.redoSize);
+                byId.put(game.id, game);
+            }
+            int expected = (int) crc.getValue();
+            return in.readInt() == expected;
+        } catch (IOException | IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Maps segment and returns the payloads of its intact frames, back to back. Reading
+     * stops at the first frame that is cut short or fails its checksum.
+     */
+    private static ByteBuffer readSegment(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer records = ByteBuffer.allocate((int) Math.max(0, map.capacity() - SEGMENT_HEADER_BYTES));
+            if (map.capacity() < SEGMENT_HEADER_BYTES || map.getInt(0) != SEGMENT_MAGIC) return records.flip();
+            int pos = SEGMENT_HEADER_BYTES;
+            CRC32C crc = new CRC32C();
+            while (pos + FRAME_HEADER_BYTES <= map.capacity()) {
+                int length = map.getInt(pos);
+                int checksum = map.getInt(pos + 4);
+                if (length <= 0 || pos + FRAME_HEADER_BYTES + length > map.capacity()) break;
+                ByteBuffer frame = map.slice(pos + FRAME_HEADER_BYTES, length);
+                crc.reset();
+                crc.update(frame.duplicate());
+                if ((int) crc.getValue() != checksum) break;
+                records.put(frame);
+                pos += FRAME_HEADER_BYTES + length;
+            }
+            return records.flip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // One decoded record; userId and strategy are only set for a CREATE
+    private record Record(int op, int id, byte move, String userId, String strategy) {
+    }
+
+    private static List<Record> decodeRecords(ByteBuffer records) {
+        List<Record> decoded = new ArrayList<>();
+        while (records.hasRemaining()) {
+            int op = records.get() & 0xff;
+            int id = getVarint(records);
+            if ((op & ~COMMIT_BIT) == CREATE) {
+                byte[] user = new byte[records.getShort() & 0xffff];
+                records.get(user);
+                byte[] strategy = new byte[records.get() & 0xff];
+                records.get(strategy);
+                decoded.add(new Record(op, id, (byte) 0, new String(user, StandardCharsets.UTF_8),
+                        new String(strategy, StandardCharsets.UTF_8)));
+            } else {
+                byte move = (op == MOVE || op == (MOVE | COMMIT_BIT)) ? records.get() : 0;
+                decoded.add(new Record(op, id, move, null, null));
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Applies one game's records, in journal order, to its state from the snapshot.
+     *
+     * @param game the game as the snapshot left it, or null if it was not in the snapshot
+     * @return the game afterwards, or null if it ended up deleted
+     */
+    private static JournalGame replay(JournalGame game, List<Record> records) {
+        for (Record record : records) {
+            switch (record.op() & ~COMMIT_BIT) {
+                case CREATE -> game = new JournalGame(record.id(), record.userId(), record.strategy());
+                case DELETE -> game = null;
+                default -> {
+                    if (game != null) game.apply(record.op(), record.move());
+                }
+            }
+        }
+        return game;
+    }
+
+    private TreeMap<Long, Path> list(String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) paths::iterator) {
+                String name = p.getFileName().toString();
+                if (!name.startsWith(prefix) || !name.endsWith(suffix)) continue;
+                try {
+                    files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), p);
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return files;
+    }
+
+    private static String segmentName(long seq) {
+        return String.format("%s%016d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX);
+    }
+
+    private static String snapshotName(long seq) {
+        return String.format("%s%016d%s", SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX);
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    /**
+     * Writes what is queued, snapshots every game and closes the journal.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!running) return;
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,109 +1,333 @@
 package com.othello.backend.api.service;
 
+import com.othello.backend.api.dto.MoveRequestDTO;
 import com.othello.backend.api.dto.MoveResponseDTO;
+import com.othello.backend.api.dto.ReplayResponseDTO;
+import com.othello.backend.api.dto.SearchInfoDTO;
+import com.othello.backend.api.dto.SessionMetricsDTO;
 import com.othello.backend.api.exception.*;
 import com.othello.backend.engine.*;
-import com.othello.backend.strategy.HumanStrategy;
+import com.othello.backend.strategy.Player;
+import com.othello.backend.strategy.SearchInfo;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
-import com.othello.backend.strategy.Strategy;
-import com.othello.backend.strategy.StrategyFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 
 
 public class GameService {
 
-    // Stores games in memory: UserID -> Game Instance
-    private final Map<String, OthelloGameEngine> games = new ConcurrentHashMap<>();
-    private final StrategyFactory factory = new StrategyFactory();;
+    // Stores games in memory, evicting and rehydrating them: UserID -> Game Instance
+    private final GameSessionStore sessions;
+    private final WinProbabilityService winProbability;
+    private final AiMoveExecutor aiMoves;
+    private final GameEventService events;
+    private final long pollTimeoutMillis;
+
+    public GameService(GameSessionStore sessions, WinProbabilityService winProbability, AiMoveExecutor aiMoves,
+                       GameEventService events, @Value("${othello.ai.poll-timeout-millis:20000}") long pollTimeoutMillis) {
+        this.sessions = sessions;
+        this.winProbability = winProbability;
+        this.aiMoves = aiMoves;
+        this.events = events;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+    }
 
     public MoveResponseDTO createNewGameEngine(String userId, String strategy) {
-        if (games.containsKey(userId)) {
-            throw new GameInProgessException();
-        }
-        Othello game = new Othello();
-        HumanStrategy p1 = new HumanStrategy(game, OthelloBoard.P1);
-        Strategy p2 = factory.createStrategy(game, strategy);
+        return readState(sessions.create(userId, strategy));
+    }
 
-        OthelloGameEngine gameEngine = new OthelloGameEngine(game, p1, p2);
-        MoveResult result = gameEngine.getGameState();
-        games.put(userId, gameEngine);
+    public MoveResponseDTO getGameEngine(String userId) {
+        return readState(sessions.get(userId));
+    }
 
-        return new MoveResponseDTO(result);
+    // Reads the latest snapshot, so it never waits for a move being played or searched
+    private MoveResponseDTO readState(GameSession session) {
+        GameSession.Snapshot snapshot = session.getSnapshot();
+        MoveResponseDTO response = snapshot.getResponse();
+        if (response.getWinProbability() != null) return response;
+
+        Double estimate = winProbability.estimate(snapshot.getBoard(), response.getNextTurn(), response.isGameOver());
+        if (estimate == null) return response;
+        MoveResponseDTO filled = new MoveResponseDTO(response, estimate);
+        session.fillIn(snapshot, filled);
+        return filled;
     }
 
-    public MoveResponseDTO getGameEngine(String userId) {
-        OthelloGameEngine gameEngine = games.get(userId);
-        if (gameEngine == null) {
-            throw new GameNotFoundException(userId);
+    public List<MoveResponseDTO> makeMove(String userId, int row, int col) {
+        return write(userId, session -> {
+            // A search for a position undone since may still be running, and it uses the same SearchContext
+            if (session.isAiPending()) throw new AiBusyException(session.getStrategy());
+            ArrayList<MoveResponseDTO> moves = new ArrayList<>();
+            OthelloGameEngine gameEngine = session.getEngine();
+            MoveResponseDTO response = playHumanMove(session, row, col);
+            moves.add(response);
+            if (response.isGameOver() || response.getNextTurn() == OthelloBoard.P1) {
+                return moves;
+            }
+
+            // The reply is searched while holding the game, so other writers wait for it; readers do not
+            while(response.getNextTurn() == OthelloBoard.P2) {
+                MoveCommand moveCommand = new MoveCommand(
+                        gameEngine.getGame(),
+                        searchAiMove(session, Position.of(gameEngine.getGame()), session.getVersion()),
+                        gameEngine.getPlayer2().getPlayer());
+                MoveResult result = gameEngine.executeMove(moveCommand);
+                // The turn would not change, so the loop would ask for the same move forever
+                if (!result.isSuccess()) throw new IllegalStateException(session.getStrategy() + " chose an illegal move");
+                response = commit(session, result);
+                moves.add(response);
+            }
+            return moves;
+        });
+    }
+
+    /**
+     * Plays the player's move and returns at once; the computer's reply is computed on
+     * the AiMoveExecutor. Fetch it with awaitState, passing the version of this response.
+     *
+     * @throws AiBusyException if the computer could not take another move right now;
+     *         the player's move is not played then
+     */
+    public MoveResponseDTO makeMoveAsync(String userId, int row, int col) {
+        String strategy = sessions.get(userId).getStrategy();
+        if (!aiMoves.hasCapacity(strategy)) throw new AiBusyException(strategy);
+        return write(userId, session -> {
+            MoveResponseDTO response = playHumanMove(session, row, col);
+            scheduleAiTurn(session);
+            return response;
+        });
+    }
+
+    /**
+     * Plays moves for whichever side is to move, without the computer replying, in one
+     * pass as the game's writer. They count as one change of the game, published once at
+     * the end. Replay stops at the first illegal move, and the moves before it stay played.
+     * If the computer is to move afterwards, the next poll of awaitState queues its turn.
+     *
+     * @param moves the moves in order; a null move is an illegal one
+     */
+    public ReplayResponseDTO replayMoves(String userId, List<Move> moves) {
+        return write(userId, session -> {
+            if (session.isAiPending()) throw new AiBusyException(session.getStrategy());
+            OthelloGameEngine gameEngine = session.getEngine();
+            Othello game = gameEngine.getGame();
+            MoveResult last = null;
+            int applied = 0;
+            for (Move move : moves) {
+                if (move == null || game.isGameOver()) break;
+                MoveResult result = gameEngine.executeMove(new MoveCommand(game, move, game.getWhosTurn()));
+                if (!result.isSuccess()) break;
+                last = result;
+                applied++;
+            }
+            MoveResponseDTO state = (last == null) ? readState(session) : commit(session, last);
+            return new ReplayResponseDTO(state, applied, (applied < moves.size()) ? applied : null);
+        });
+    }
+
+    /**
+     * Returns the moves of a transcript in the standard notation, such as "f5d6c3",
+     * ignoring spaces and commas. A pair that is not a square becomes a null move, and
+     * so does a lone trailing character.
+     *
+     * This board starts as the standard one mirrored top to bottom (Player 1 on d4 and
+     * e5), so rows are counted from the bottom and standard transcripts replay as played.
+     */
+    public static List<Move> parseTranscript(String transcript) {
+        String squares = transcript.replaceAll("[\\s,]", "").toLowerCase();
+        List<Move> moves = new ArrayList<>();
+        for (int i = 0; i < squares.length(); i += 2) {
+            if (i + 1 == squares.length()) {
+                moves.add(null);
+                break;
+            }
+            int col = squares.charAt(i) - 'a';
+            int row = '8' - squares.charAt(i + 1);
+            moves.add(isSquare(row, col) ? new Move(row, col) : null);
         }
-        return new MoveResponseDTO(gameEngine.getGameState());
+        return moves;
     }
 
-    public List<MoveResponseDTO> makeMove(String userId, int row, int col) {
-        OthelloGameEngine gameEngine = games.get(userId);
-        ArrayList<MoveResponseDTO> moves = new ArrayList<>();
-        if (gameEngine == null) throw new GameNotFoundException(userId);
+    public static List<Move> toMoves(List<MoveRequestDTO> requests) {
+        List<Move> moves = new ArrayList<>(requests.size());
+        for (MoveRequestDTO request : requests) {
+            moves.add(isSquare(request.getRow(), request.getColumn()) ? new Move(request.getRow(), request.getColumn()) : null);
+        }
+        return moves;
+    }
+
+    private static boolean isSquare(int row, int col) {
+        return row >= 0 && row < Othello.DIMENSION && col >= 0 && col < Othello.DIMENSION;
+    }
 
+    /**
+     * Returns the state once the game's version is past after, waiting up to the poll
+     * timeout for the next change; on timeout the current state is returned. An AI turn
+     * that was refused earlier is queued again first, unless someone is writing the game.
+     */
+    public CompletableFuture<MoveResponseDTO> awaitState(String userId, long after) {
+        GameSession session = sessions.get(userId);
+        session.tryWrite(() -> scheduleAiTurn(session));
+        CompletableFuture<Void> change = session.nextChange(); // read before the version, see nextChange()
+        if (session.getVersion() > after) return CompletableFuture.completedFuture(getGameEngine(userId));
+        // A copy, so the timeout does not complete the future other waiters share
+        return change.copy().completeOnTimeout(null, pollTimeoutMillis, TimeUnit.MILLISECONDS)
+                .thenApplyAsync(ignored -> getGameEngine(userId));
+    }
+
+    // Plays P1's move if it is P1's turn; the caller is the session's writer
+    private MoveResponseDTO playHumanMove(GameSession session, int row, int col) {
+        OthelloGameEngine gameEngine = session.getEngine();
+        if (gameEngine.getGame().getWhosTurn() != gameEngine.getPlayer1().getPlayer()) throw new InvalidMoveException();
         MoveCommand moveCommand = new MoveCommand(gameEngine.getGame(), new Move(row, col), gameEngine.getPlayer1().getPlayer());
         MoveResult result = gameEngine.executeMove(moveCommand); // Logic from Day 1-3
-        moves.add(new MoveResponseDTO(result));
         if (!result.isSuccess()) {
             throw new InvalidMoveException();
         }
-        else if (result.isGameOver() || result.getNextTurn() == OthelloBoard.P1) {
-            return moves;
-        }
+        return commit(session, result);
+    }
 
-        while(result.getNextTurn() == OthelloBoard.P2) {
-            moveCommand = new MoveCommand(
-                    gameEngine.getGame(),
-                    gameEngine.getPlayer2().getMove(),
-                    gameEngine.getPlayer2().getPlayer());
-            result = gameEngine.executeMove(moveCommand);
-            moves.add(new MoveResponseDTO(result));
+    /**
+     * Queues the computer's move if it is its turn and none is queued yet; the caller is
+     * the session's writer. The move is searched on a snapshot without holding the game,
+     * and only played if the game has not changed in the meantime.
+     */
+    private void scheduleAiTurn(GameSession session) {
+        if (session.isAiPending() || !session.isAiToMove()) return;
+        Position position = Position.of(session.getGame());
+        long version = session.getVersion();
+        Player ai = session.getEngine().getPlayer2();
+        session.setAiPending(true);
+        try {
+            aiMoves.submit(session.getStrategy(), () -> searchAiMove(session, position, version)).whenComplete((move, error) -> {
+                try {
+                    session.write(() -> {
+                        session.setAiPending(false);
+                        if (error != null) return; // refused or failed; the next poll queues it again
+                        if (move != null && session.getVersion() == version) {
+                            MoveResult result = session.getEngine().executeMove(new MoveCommand(session.getGame(), move, ai.getPlayer()));
+                            if (!result.isSuccess()) return; // an illegal choice; queueing again would repeat it
+                            commit(session, result);
+                        }
+                        scheduleAiTurn(session); // the player may have had to pass
+                    });
+                } catch (GameSession.ClosedException e) {
+                    // the game was deleted while the computer thought
+                }
+            });
+        } catch (AiBusyException e) {
+            session.setAiPending(false);
         }
-        return moves;
     }
 
     public List<MoveResponseDTO> undoMove(String userId) {
-        OthelloGameEngine gameEngine = games.get(userId);
-        ArrayList<MoveResponseDTO> moves = new ArrayList<>();
-        if (gameEngine == null) throw new GameNotFoundException(userId);
-
-        moves.add(new MoveResponseDTO(gameEngine.undoMove()));
-        MoveResult result = gameEngine.undoMove();
-        moves.add(new MoveResponseDTO(result));
+        return write(userId, session -> {
+            ArrayList<MoveResponseDTO> moves = new ArrayList<>();
+            OthelloGameEngine gameEngine = session.getEngine();
+            MoveResult first = gameEngine.undoMove();
+            moves.add(toResponse(first, session.getVersion()));
+            MoveResult result = gameEngine.undoMove();
+            // A failed undo changes nothing, so there is a new version only if either went through
+            if (first.isSuccess() || result.isSuccess()) moves.add(commit(session, result));
 
-        if (!result.isSuccess()) throw new InvalidUndoException();
-        return moves;
+            if (!result.isSuccess()) throw new InvalidUndoException();
+            return moves;
+        });
     }
 
     public List<MoveResponseDTO> redoMove(String userId) {
-        OthelloGameEngine gameEngine = games.get(userId);
-        ArrayList<MoveResponseDTO> moves = new ArrayList<>();
-        if (gameEngine == null) throw new GameNotFoundException(userId);
+        return write(userId, session -> {
+            ArrayList<MoveResponseDTO> moves = new ArrayList<>();
+            OthelloGameEngine gameEngine = session.getEngine();
+            MoveResult first = gameEngine.redoMove();
+            moves.add(toResponse(first, session.getVersion()));
+            MoveResult result = gameEngine.redoMove();
+            // A failed redo changes nothing, so there is a new version only if either went through
+            if (first.isSuccess() || result.isSuccess()) moves.add(commit(session, result));
 
-        moves.add(new MoveResponseDTO(gameEngine.redoMove()));
-        MoveResult result = gameEngine.redoMove();
-        moves.add(new MoveResponseDTO(result));
+            if (!result.isSuccess()) throw new InvalidRedoException();
+            return moves;
+        });
+    }
 
-        if (!result.isSuccess()) throw new InvalidRedoException();
-        return moves;
+    /**
+     * Opens a stream of the game's events for the browser, see GameEventService.
+     */
+    public SseEmitter subscribe(String userId) {
+        sessions.get(userId);
+        return events.subscribe(userId, () -> getGameEngine(userId));
+    }
+
+    /**
+     * Asks the computer for its move in position, reporting the search's progress to the
+     * game's subscribers if it has any. The caller must not be searching for this game already.
+     */
+    private Move searchAiMove(GameSession session, Position position, long version) {
+        Player ai = session.getEngine().getPlayer2();
+        String userId = session.getUserId();
+        ai.getContext().setListener(!events.hasSubscribers(userId) ? null
+                : info -> events.publishSearch(userId, toSearchInfo(info, position, version)));
+        return ai.getMove(position);
+    }
+
+    private SearchInfoDTO toSearchInfo(SearchInfo info, Position position, long version) {
+        Double p1Wins;
+        if (!Double.isNaN(info.getWinRate())) {
+            p1Wins = (position.getToMove() == OthelloBoard.P1) ? info.getWinRate() : 1.0 - info.getWinRate();
+        } else {
+            p1Wins = winProbability.estimate(position.toBoard(), position.getToMove(), false);
+        }
+        return new SearchInfoDTO(version, info.getDepth(), BitBoard.row(info.getSquare()), BitBoard.col(info.getSquare()),
+                info.getScore(), p1Wins, info.getNodes(), info.getElapsedMillis());
+    }
+
+    // Publishes a change to the game, journals it and tells its subscribers; the caller is the session's writer
+    private MoveResponseDTO commit(GameSession session, MoveResult result) {
+        MoveResponseDTO response = toResponse(result, session.getVersion() + 1);
+        session.publish(response, new OthelloBoard(result.getGameState()));
+        session.getRecorder().committed();
+        events.publishMove(session.getUserId(), response);
+        return response;
+    }
+
+    public SessionMetricsDTO getSessionMetrics() {
+        return sessions.getMetrics();
+    }
+
+    // Runs action as userId's writer; if the game is evicted while it waits, the game is looked up, so rehydrated, again
+    private <T> T write(String userId, Function<GameSession, T> action) {
+        while (true) {
+            GameSession session = sessions.get(userId);
+            try {
+                return session.write(() -> action.apply(session));
+            } catch (GameSession.ClosedException e) {
+                // evicted or deleted while waiting
+            }
+        }
+    }
+
+    // Builds the response while the board still shows this result's position
+    private MoveResponseDTO toResponse(MoveResult result, long version) {
+        MoveResponseDTO response = new MoveResponseDTO(result);
+        response.setWinProbability(
+                winProbability.estimate(result.getGameState(), result.getNextTurn(), result.isGameOver()));
+        response.setVersion(version);
+        return response;
     }
 
     public void deleteGameEngine(String userId) {
-        OthelloGameEngine gameEngine = games.get(userId);
-        if (gameEngine == null) {
+        if (!sessions.remove(userId)) {
             throw new GameNotFoundException(userId);
         }
-        games.remove(userId);
+        events.close(userId);
     }
 
 }
@@ -0,0 +1,188 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.api.dto.MoveResponseDTO;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.OthelloGameEngine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One user's game in GameService, with a single writer at a time and lock-free reads.
+ *
+ * Everything that changes the game runs through write(), which holds the game's own
+ * fair lock: writers for one game take turns in the order they arrived, so two
+ * concurrent requests always end as if they had come one after the other, and writers
+ * for different games never wait for each other. The engine and aiPending may only be
+ * touched inside write().
+ *
+ * Every change publishes an immutable snapshot of the new state with a bumped version.
+ * Readers only look at the latest snapshot, so they never wait for a writer, not even
+ * one that is searching for the computer's move.
+ *
+ * A session that is evicted or deleted is closed by its writer. Writers that were
+ * waiting behind it then get a ClosedException instead of changing a game nobody will
+ * see again, and look the game up anew (see GameSessionStore).
+ */
+final class GameSession {
+    // Rough heap cost of a session and of each move it remembers, for the store's byte cap
+    static final int SESSION_BYTES = 12 * 1024;
+    static final int MOVE_BYTES = 96;
+
+    private final String userId;
+    private final OthelloGameEngine engine;
+    private final String strategy;
+    private final GameJournal.Recorder recorder;
+    private final ReentrantLock writer = new ReentrantLock(true);
+    private final AtomicReference<Snapshot> snapshot;
+    private volatile CompletableFuture<Void> changed = new CompletableFuture<>();
+    private volatile long lastAccessNanos = System.nanoTime();
+    private volatile long estimatedBytes;
+    private boolean aiPending; // an AI turn is queued or running
+    private boolean closed;
+
+    /**
+     * @param recorder journals the game's changes; it already listens to the engine
+     * @param initial the current state of the game, with version 0 for a new one
+     */
+    GameSession(String userId, OthelloGameEngine engine, String strategy, GameJournal.Recorder recorder,
+            MoveResponseDTO initial) {
+        this.userId = userId;
+        this.engine = engine;
+        this.strategy = strategy;
+        this.recorder = recorder;
+        this.snapshot = new AtomicReference<>(new Snapshot(initial, new OthelloBoard(engine.getGame().getBoard())));
+        this.estimatedBytes = measure();
+    }
+
+    /**
+     * Thrown by write() when the session was closed while the writer waited for it.
+     */
+    static final class ClosedException extends RuntimeException {
+        ClosedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * The state after one change of the game. The response is shared by every reader and
+     * must not be modified; the board is a private copy of the position it shows.
+     */
+    static final class Snapshot {
+        private final MoveResponseDTO response;
+        private final OthelloBoard board;
+
+        Snapshot(MoveResponseDTO response, OthelloBoard board) {
+            this.response = response;
+            this.board = board;
+        }
+
+        MoveResponseDTO getResponse() { return response; }
+        OthelloBoard getBoard() { return board; }
+    }
+
+    String getUserId() { return userId; }
+    OthelloGameEngine getEngine() { return engine; }
+    Othello getGame() { return engine.getGame(); }
+    String getStrategy() { return strategy; }
+    GameJournal.Recorder getRecorder() { return recorder; }
+
+    Snapshot getSnapshot() { return snapshot.get(); }
+    long getVersion() { return snapshot.get().getResponse().getVersion(); }
+
+    long getLastAccessNanos() { return lastAccessNanos; }
+    long getEstimatedBytes() { return estimatedBytes; }
+
+    /** Records that a request used this game, which keeps it from being evicted as idle. */
+    void touch() { lastAccessNanos = System.nanoTime(); }
+
+    boolean isAiPending() { return aiPending; }
+    void setAiPending(boolean aiPending) { this.aiPending = aiPending; }
+
+    /**
+     * Runs action as the game's only writer, after the writers that arrived before it.
+     *
+     * @throws ClosedException if the session was closed before action could run
+     */
+    <T> T write(Supplier<T> action) {
+        writer.lock();
+        try {
+            if (closed) throw new ClosedException();
+            return action.get();
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    void write(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs action as the writer if no one else is writing right now and the session is
+     * open, and returns whether it ran.
+     */
+    boolean tryWrite(Runnable action) {
+        if (!writer.tryLock()) return false;
+        try {
+            if (closed) return false;
+            action.run();
+            return true;
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    /**
+     * Returns whether it is the computer's turn in a game that is still running.
+     */
+    boolean isAiToMove() {
+        Othello game = engine.getGame();
+        return !game.isGameOver() && game.getWhosTurn() == engine.getPlayer2().getPlayer();
+    }
+
+    /**
+     * Returns a future that completes at the next change of the game. A caller that reads
+     * it before the version sees every change after that version.
+     */
+    CompletableFuture<Void> nextChange() {
+        return changed;
+    }
+
+    /**
+     * Publishes the state after a change, whose version must be one more than the current
+     * one, and wakes everyone waiting for a change. Only the writer may call this.
+     */
+    void publish(MoveResponseDTO response, OthelloBoard board) {
+        snapshot.set(new Snapshot(response, board));
+        estimatedBytes = measure();
+        CompletableFuture<Void> waiting = changed;
+        changed = new CompletableFuture<>();
+        waiting.complete(null);
+    }
+
+    /**
+     * Closes the session for good. Only the writer may call this.
+     */
+    void close() {
+        closed = true;
+    }
+
+    private long measure() {
+        return SESSION_BYTES + (long) MOVE_BYTES * (engine.getHistory().size() + engine.getRedoStack().size());
+    }
+
+    /**
+     * Replaces snapshot with one that has the win probability filled in, unless the game
+     * has changed since.
+     */
+    void fillIn(Snapshot old, MoveResponseDTO response) {
+        snapshot.compareAndSet(old, new Snapshot(response, old.getBoard()));
+    }
+}
@@ -0,0 +1,409 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.api.dto.MoveResponseDTO;
+import com.othello.backend.api.dto.SessionMetricsDTO;
+import com.othello.backend.api.exception.GameInProgessException;
+import com.othello.backend.api.exception.GameNotFoundException;
+import com.othello.backend.api.exception.InvalidStrategyException;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.OthelloGameEngine;
+import com.othello.backend.strategy.EndgameSolver;
+import com.othello.backend.strategy.HumanStrategy;
+import com.othello.backend.strategy.Player;
+import com.othello.backend.strategy.SearchContext;
+import com.othello.backend.strategy.StrategyFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the live games and decides how long they stay on the heap.
+ *
+ * A background sweep evicts games nobody has touched for the idle TTL, and then the
+ * least recently used ones while there are more games, or more estimated bytes, than
+ * the caps allow. A game is never evicted while a writer holds it or the computer is
+ * thinking about its move.
+ *
+ * With a spill directory configured, an evicted game is first written there in its
+ * compact form (see SpilledGame) and comes back on the next request for its user, so
+ * evicting it loses nothing; spilled games are deleted once they are older than the
+ * spill TTL. Without one, or if writing fails, an evicted game is gone.
+ *
+ * Every game is also kept in the GameJournal, which this store tells about games it
+ * creates and drops. The games the journal recovers at startup take precedence over any
+ * spilled copy, which can only be older: a game that was spilled when the server stopped
+ * has its spill rewritten from the journal and stays on disk, the others are rebuilt on
+ * the heap in parallel, and then the caps are enforced as in a sweep.
+ */
+@Service
+public class GameSessionStore {
+    private static final String SPILL_SUFFIX = ".game";
+
+    private final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
+    // Strategies are stateless, so one factory's instances serve every game
+    private final StrategyFactory factory;
+    private final HumanStrategy human = new HumanStrategy();
+    private final GameJournal journal;
+    private final long idleTtlNanos;
+    private final int maxSessions;
+    private final long maxBytes;
+    private final Path spillDir; // null when evicted games are dropped
+    private final long spillTtlMillis;
+    private final ScheduledExecutorService sweeper;
+
+    private final AtomicLong evictedIdle = new AtomicLong();
+    private final AtomicLong evictedForCapacity = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong spillFailures = new AtomicLong();
+    private final AtomicLong rehydrated = new AtomicLong();
+    private final AtomicLong rehydrateFailures = new AtomicLong();
+    private final AtomicLong expiredSpills = new AtomicLong();
+    private final AtomicLong onDisk = new AtomicLong();
+
+    public GameSessionStore(
+            @Value("${othello.sessions.idle-ttl-minutes:30}") long idleTtlMinutes,
+            @Value("${othello.sessions.max-sessions:10000}") int maxSessions,
+            @Value("${othello.sessions.max-bytes:268435456}") long maxBytes,
+            @Value("${othello.sessions.spill-dir:}") String spillDir,
+            @Value("${othello.sessions.spill-ttl-hours:24}") long spillTtlHours,
+            @Value("${othello.sessions.sweep-interval-seconds:30}") long sweepIntervalSeconds,
+            GameJournal journal,
+            StrategyFactory factory) {
+        this.journal = journal;
+        this.factory = factory;
+        this.idleTtlNanos = TimeUnit.MINUTES.toNanos(idleTtlMinutes);
+        this.maxSessions = maxSessions;
+        this.maxBytes = maxBytes;
+        this.spillTtlMillis = TimeUnit.HOURS.toMillis(spillTtlHours);
+        this.spillDir = spillDir.isBlank() ? null : Path.of(spillDir);
+        if (this.spillDir != null) {
+            try {
+                Files.createDirectories(this.spillDir);
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(this.spillDir, "*" + SPILL_SUFFIX)) {
+                    for (Path ignored : files) onDisk.incrementAndGet();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open the session spill directory " + spillDir, e);
+            }
+        }
+        restore(journal.takeRecovered());
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts a new game for userId against strategy.
+     *
+     * @throws InvalidStrategyException if strategy names no strategy
+     * @throws GameInProgessException if userId has a game, live or spilled
+     */
+    GameSession create(String userId, String strategy) {
+        // Checked before anything is journaled or spilled, both of which need the name
+        if (factory.getStrategy(strategy) == null) throw new InvalidStrategyException(strategy);
+        if (spillDir != null && Files.exists(spillFile(userId))) throw new GameInProgessException();
+        GameSession session = newSession(userId, strategy, null);
+        // Of two requests racing to start a game, only the first one's is kept. The game
+        // is journaled before anyone else can write it, so its changes follow its creation
+        session.write(() -> {
+            if (sessions.putIfAbsent(userId, session) != null) throw new GameInProgessException();
+            journal.created(userId, strategy);
+        });
+        if (sessions.size() > maxSessions) enforceCaps();
+        return session;
+    }
+
+    /**
+     * Returns userId's game, bringing it back from disk if it was spilled, and marks it as used.
+     *
+     * @throws GameNotFoundException if userId has no game
+     */
+    GameSession get(String userId) {
+        if (userId == null) throw new GameNotFoundException(null);
+        GameSession session = sessions.get(userId);
+        if (session == null && spillDir != null) session = sessions.computeIfAbsent(userId, this::rehydrate);
+        if (session == null) throw new GameNotFoundException(userId);
+        session.touch();
+        return session;
+    }
+
+    /**
+     * Deletes userId's game, live or spilled, and returns whether there was one. Writers
+     * still waiting for the game get a ClosedException.
+     */
+    boolean remove(String userId) {
+        if (userId == null) return false;
+        GameSession session = sessions.remove(userId);
+        if (session != null) {
+            try {
+                session.write(session::close);
+            } catch (GameSession.ClosedException e) {
+                // evicted at the same moment
+            }
+        }
+        journal.deleted(userId);
+        boolean wasSpilled = spillDir != null && deleteSpill(spillFile(userId));
+        return session != null || wasSpilled;
+    }
+
+    public SessionMetricsDTO getMetrics() {
+        return new SessionMetricsDTO(sessions.size(), estimatedBytes(), onDisk.get(), evictedIdle.get(),
+                evictedForCapacity.get(), spilled.get(), spillFailures.get(), rehydrated.get(),
+                rehydrateFailures.get(), expiredSpills.get(), journal.getEvents(), journal.getBytes(),
+                journal.getCommits(), journal.getFailures(), journal.getRecoveryMillis(),
+                EndgameSolver.getNodesPerSecond(), EndgameSolver.getWorstSolveMillis());
+    }
+
+    private GameSession newSession(String userId, String strategy, SpilledGame record) {
+        Othello game = new Othello();
+        Player p1 = new Player(game, OthelloBoard.P1, human, new SearchContext());
+        Player p2 = factory.createPlayer(game, strategy);
+        OthelloGameEngine engine = new OthelloGameEngine(game, p1, p2);
+        long version = 0;
+        if (record != null) {
+            try {
+                record.replay(engine);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            version = record.getVersion();
+        }
+        // Replayed moves are in the journal already; only what happens from now on is recorded
+        GameJournal.Recorder recorder = journal.recorder(userId);
+        engine.setListener(recorder);
+        // The win probability is filled in by the first read
+        MoveResponseDTO initial = new MoveResponseDTO(engine.getGameState());
+        initial.setVersion(version);
+        return new GameSession(userId, engine, strategy, recorder, initial);
+    }
+
+    /**
+     * Brings back the games the journal recovered, in parallel: those that were spilled
+     * are spilled again from the journal's copy, the rest are rebuilt on the heap. A game
+     * that no longer replays is dropped from the journal. The caps apply from the start.
+     */
+    private void restore(List<SpilledGame> recovered) {
+        recovered.parallelStream().forEach(record -> {
+            if (spillDir != null && Files.exists(spillFile(record.getUserId()))) {
+                try {
+                    writeSpill(record);
+                    return;
+                } catch (IOException e) {
+                    spillFailures.incrementAndGet(); // rebuilt on the heap instead
+                }
+            }
+            try {
+                sessions.put(record.getUserId(), newSession(record.getUserId(), record.getStrategy(), record));
+                rehydrated.incrementAndGet();
+            } catch (RuntimeException e) {
+                journal.deleted(record.getUserId());
+                rehydrateFailures.incrementAndGet();
+            }
+            if (spillDir != null) deleteSpill(spillFile(record.getUserId()));
+        });
+        enforceCaps();
+    }
+
+    /**
+     * Runs every sweep interval: evicts idle games, then enforces the caps, then deletes
+     * expired spills. A game that fails to evict is skipped and the others still are; any
+     * other failure is left for the next sweep rather than cancelling the schedule.
+     */
+    void sweep() {
+        try {
+            long now = System.nanoTime();
+            for (GameSession session : sessions.values()) {
+                if (now - session.getLastAccessNanos() > idleTtlNanos) tryEvict(session, evictedIdle);
+            }
+            enforceCaps();
+            expireSpills();
+        } catch (RuntimeException e) {
+            // the next sweep tries again
+        }
+    }
+
+    private void enforceCaps() {
+        int count = sessions.size();
+        long bytes = estimatedBytes();
+        if (count <= maxSessions && bytes <= maxBytes) return;
+
+        // Sort on a copy of the access times, which keep changing while we sort
+        Map<GameSession, Long> accessed = new IdentityHashMap<>();
+        for (GameSession session : sessions.values()) accessed.put(session, session.getLastAccessNanos());
+        List<GameSession> leastRecentFirst = new ArrayList<>(accessed.keySet());
+        leastRecentFirst.sort(Comparator.comparing(accessed::get));
+        for (GameSession session : leastRecentFirst) {
+            if (count <= maxSessions && bytes <= maxBytes) break;
+            if (tryEvict(session, evictedForCapacity)) {
+                count--;
+                bytes -= session.getEstimatedBytes();
+            }
+        }
+    }
+
+    // One game that cannot be evicted must not stop the sweep from evicting the rest
+    private boolean tryEvict(GameSession session, AtomicLong reason) {
+        try {
+            return evict(session, reason);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Spills session if spilling is on and drops it from the heap, unless someone is
+     * writing it or the computer is thinking about its move. Returns whether it was evicted.
+     */
+    private boolean evict(GameSession session, AtomicLong reason) {
+        AtomicBoolean evicted = new AtomicBoolean();
+        session.tryWrite(() -> {
+            if (session.isAiPending()) return;
+            boolean kept = false;
+            if (spillDir != null) {
+                try {
+                    spill(session);
+                    kept = true;
+                } catch (IOException | RuntimeException e) {
+                    spillFailures.incrementAndGet();
+                }
+            }
+            if (!kept) journal.deleted(session.getUserId());
+            session.close();
+            sessions.remove(session.getUserId(), session);
+            evicted.set(true);
+        });
+        if (evicted.get()) reason.incrementAndGet();
+        return evicted.get();
+    }
+
+    private void spill(GameSession session) throws IOException {
+        writeSpill(SpilledGame.of(session));
+        spilled.incrementAndGet();
+    }
+
+    // Written to a temporary file first, so a crash never leaves half a record behind
+    private void writeSpill(SpilledGame record) throws IOException {
+        Path file = spillFile(record.getUserId());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+            record.write(out);
+        }
+        boolean replacing = Files.exists(file);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (!replacing) onDisk.incrementAndGet();
+    }
+
+    /**
+     * Loads userId's spilled game and deletes the record, or returns null if there is none.
+     * A record that cannot be read is deleted too, or every request would trip over it.
+     */
+    private GameSession rehydrate(String userId) {
+        Path file = spillFile(userId);
+        if (!Files.exists(file)) return null;
+        SpilledGame record;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            record = SpilledGame.read(in);
+        } catch (IOException e) {
+            record = null;
+        }
+        GameSession session = null;
+        try {
+            if (record != null && record.getUserId().equals(userId)) {
+                session = newSession(userId, record.getStrategy(), record);
+            }
+        } catch (RuntimeException e) {
+            session = null;
+        }
+        deleteSpill(file);
+        if (session == null) {
+            journal.deleted(userId);
+            rehydrateFailures.incrementAndGet();
+        }
+        else rehydrated.incrementAndGet();
+        return session;
+    }
+
+    private void expireSpills() {
+        if (spillDir == null) return;
+        long cutoff = System.currentTimeMillis() - spillTtlMillis;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDir, "*" + SPILL_SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() >= cutoff) continue;
+                String userId = null;
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                    userId = SpilledGame.read(in).getUserId();
+                } catch (IOException e) {
+                    // unreadable, so not worth keeping in the journal either
+                }
+                if (deleteSpill(file)) {
+                    if (userId != null) journal.deleted(userId);
+                    expiredSpills.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            // the next sweep tries again
+        }
+    }
+
+    private boolean deleteSpill(Path file) {
+        try {
+            if (!Files.deleteIfExists(file)) return false;
+            onDisk.decrementAndGet();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // User ids come from a request header, so the file is named by a hash of the id
+    private Path spillFile(String userId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(userId.getBytes(StandardCharsets.UTF_8));
+            return spillDir.resolve(HexFormat.of().formatHex(digest) + SPILL_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM has SHA-256
+        }
+    }
+
+    private long estimatedBytes() {
+        long bytes = 0;
+        for (GameSession session : sessions.values()) bytes += session.getEstimatedBytes();
+        return bytes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
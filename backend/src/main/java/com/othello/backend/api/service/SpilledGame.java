@@ -0,0 +1,120 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.MoveCommand;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.OthelloGameEngine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * The compact on-disk form of an evicted game: who played it against which strategy,
+ * its version and the moves that rebuild it. A game of 60 moves takes under 100 bytes,
+ * against kilobytes on the heap. GameJournal rebuilds recovered games through it too,
+ * and journals moves in the same one-byte encoding.
+ *
+ * Layout, big-endian: magic, format version, user id and strategy (modified UTF-8), the
+ * game's version, then the moves played oldest first and the undone moves in the order
+ * they would be redone, each list as a count byte and one byte per move. A move byte is
+ * the square, with the top bit set for Player 2.
+ */
+final class SpilledGame {
+    static final int MAGIC = 0x4f534553; // "OSES"
+    static final int FORMAT_VERSION = 1;
+    private static final int P2_BIT = 0x80;
+
+    private final String userId;
+    private final String strategy;
+    private final long version;
+    private final byte[] history;
+    private final byte[] redo;
+
+    /**
+     * @param redo the undone moves in the order they would be redone
+     */
+    SpilledGame(String userId, String strategy, long version, byte[] history, byte[] redo) {
+        this.userId = userId;
+        this.strategy = strategy;
+        this.version = version;
+        this.history = history;
+        this.redo = redo;
+    }
+
+    /**
+     * Records session's game; the caller is the session's writer.
+     */
+    static SpilledGame of(GameSession session) {
+        OthelloGameEngine engine = session.getEngine();
+        List<MoveCommand> redoStack = engine.getRedoStack();
+        byte[] redo = new byte[redoStack.size()];
+        for (int i = 0; i < redo.length; i++) redo[i] = encode(redoStack.get(redoStack.size() - 1 - i));
+        byte[] history = new byte[engine.getHistory().size()];
+        for (int i = 0; i < history.length; i++) history[i] = encode(engine.getHistory().get(i));
+        return new SpilledGame(session.getUserId(), session.getStrategy(), session.getVersion(), history, redo);
+    }
+
+    String getUserId() { return userId; }
+    String getStrategy() { return strategy; }
+    long getVersion() { return version; }
+
+    /**
+     * Plays the recorded moves on engine, a new game, leaving the same history and redo
+     * stack as when the game was spilled.
+     *
+     * @throws IOException if a recorded move is not legal, so the record is corrupt
+     */
+    void replay(OthelloGameEngine engine) throws IOException {
+        for (byte b : history) play(engine, b);
+        for (byte b : redo) play(engine, b);
+        for (int i = 0; i < redo.length; i++) engine.undoMove();
+    }
+
+    private static void play(OthelloGameEngine engine, byte b) throws IOException {
+        int square = b & ~P2_BIT & 0xff; // b is sign-extended when P2_BIT is set
+        char player = ((b & P2_BIT) != 0) ? OthelloBoard.P2 : OthelloBoard.P1;
+        Move move = new Move(BitBoard.row(square), BitBoard.col(square));
+        if (!engine.executeMove(new MoveCommand(engine.getGame(), move, player)).isSuccess()) {
+            throw new IOException("Illegal move " + square + " in a spilled game");
+        }
+    }
+
+    static byte encode(MoveCommand command) {
+        int square = BitBoard.square(command.getMove().getRow(), command.getMove().getCol());
+        return (byte) (square | ((command.getPlayer() == OthelloBoard.P2) ? P2_BIT : 0));
+    }
+
+    void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeUTF(userId);
+        out.writeUTF(strategy);
+        out.writeLong(version);
+        out.writeByte(history.length);
+        out.write(history);
+        out.writeByte(redo.length);
+        out.write(redo);
+        out.flush();
+    }
+
+    static SpilledGame read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) throw new IOException("Not a spilled game");
+        int format = in.readUnsignedByte();
+        if (format != FORMAT_VERSION) throw new IOException("Unsupported spilled game format " + format);
+        String userId = in.readUTF();
+        String strategy = in.readUTF();
+        long version = in.readLong();
+        byte[] history = new byte[in.readUnsignedByte()];
+        in.readFully(history);
+        byte[] redo = new byte[in.readUnsignedByte()];
+        in.readFully(redo);
+        return new SpilledGame(userId, strategy, version, history, redo);
+    }
+}
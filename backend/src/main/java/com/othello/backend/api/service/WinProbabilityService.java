@@ -0,0 +1,151 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.Symmetry;
+import com.othello.backend.strategy.EndgameSolver;
+import com.othello.backend.strategy.Playout;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estimates Player 1's chance of winning a position, off the request path.
+ *
+ * A request never waits for an estimate: it gets the cached value for the position,
+ * or null while the estimate is computed in the background on a small bounded pool.
+ * Estimates are cached for the side to move by canonical hash (see Symmetry), so undo,
+ * redo, repeated positions and symmetric copies of a position, in either colour, are free.
+ * Positions with few empties are solved exactly; the rest run random playouts.
+ *
+ * The cache is a fixed array of slots read and written without locks, like the
+ * transposition table: each slot holds the estimate and the hash XOR'd with it, and a
+ * new estimate replaces whatever shares its slot. A torn or overwritten slot fails the
+ * check and reads as a miss, which only costs a recomputation.
+ */
+@Service
+public class WinProbabilityService {
+    private static final long USED = Long.MIN_VALUE; // the sign bit, never set in an estimate from 0 to 1
+
+    private final int playouts;
+    private final long solveMillis;
+    private final ThreadPoolExecutor executor;
+    private final long[] cache; // per slot: the estimate's bits with USED set, then the hash XOR'd with them
+    private final int mask;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    public WinProbabilityService(
+            @Value("${othello.win-probability.playouts:400}") int playouts,
+            @Value("${othello.win-probability.solve-millis:200}") long solveMillis,
+            @Value("${othello.win-probability.threads:2}") int threads,
+            @Value("${othello.win-probability.queue-capacity:64}") int queueCapacity,
+            @Value("${othello.win-probability.cache-size:65536}") int cacheSize) {
+        this.playouts = Math.max(1, playouts);
+        this.solveMillis = solveMillis;
+        int slots = Integer.highestOneBit(Math.max(2, Math.min(cacheSize, 1 << 29) - 1)) << 1;
+        this.cache = new long[2 * slots];
+        this.mask = slots - 1;
+
+        AtomicInteger count = new AtomicInteger();
+        // When the queue is full new positions are dropped; a later request for them tries again
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "win-probability-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns Player 1's win probability for board with toMove to play, or null if it is
+     * not ready yet. A position that is not cached is queued for estimation.
+     *
+     * @param board the position; it is copied before any background work
+     * @param toMove the player to move
+     * @param gameOver whether the game has ended, in which case the result is exact
+     */
+    public Double estimate(OthelloBoard board, char toMove, boolean gameOver) {
+        if (gameOver) return finalResult(board.getBits(OthelloBoard.P1), board.getBits(OthelloBoard.P2));
+
+        long own = board.getBits(toMove), opp = board.getBits(OthelloBoard.otherPlayer(toMove));
+        long key = Symmetry.canonicalHash(own, opp);
+        double cached = cached(key);
+        if (cached >= 0) return forP1(cached, toMove);
+        if (!pending.add(key)) return null;
+
+        OthelloBoard copy = new OthelloBoard(board);
+        try {
+            executor.execute(() -> {
+                try {
+                    cache(key, compute(copy, toMove, key));
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+        }
+        return null;
+    }
+
+    // Returns the cached estimate for key, or -1 if its slot holds something else
+    private double cached(long key) {
+        int slot = 2 * (int) (key & mask);
+        long data = cache[slot];
+        if (data == 0 || (cache[slot + 1] ^ data) != key) return -1;
+        return Double.longBitsToDouble(data & ~USED);
+    }
+
+    private void cache(long key, double toMoveWins) {
+        int slot = 2 * (int) (key & mask);
+        long data = USED | Double.doubleToRawLongBits(toMoveWins);
+        cache[slot] = data;
+        cache[slot + 1] = key ^ data;
+    }
+
+    /**
+     * Returns the win probability of the side to move, scoring a draw as half a win.
+     */
+    private double compute(OthelloBoard board, char toMove, long key) {
+        long own = board.getBits(toMove), opp = board.getBits(OthelloBoard.otherPlayer(toMove));
+        long empty = board.getEmpty();
+        double toMoveWins = -1;
+
+        if (Long.bitCount(empty) <= EndgameSolver.DEFAULT_EMPTIES) {
+            EndgameSolver.Result result = EndgameSolver.solve(own, opp, empty, System.nanoTime() + solveMillis * 1_000_000);
+            if (result != null) toMoveWins = outcome(result.getMargin());
+        }
+        if (toMoveWins < 0) {
+            SplittableRandom rng = new SplittableRandom(key);
+            double wins = 0;
+            for (int i = 0; i < playouts; i++) wins += outcome(Playout.play(own, opp, empty, rng));
+            toMoveWins = wins / playouts;
+        }
+        return toMoveWins;
+    }
+
+    private static double forP1(double toMoveWins, char toMove) {
+        return (toMove == OthelloBoard.P1) ? toMoveWins : 1.0 - toMoveWins;
+    }
+
+    private static double finalResult(long p1, long p2) {
+        return outcome(Long.bitCount(p1) - Long.bitCount(p2));
+    }
+
+    private static double outcome(int margin) {
+        return (margin > 0) ? 1.0 : (margin < 0) ? 0.0 : 0.5;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
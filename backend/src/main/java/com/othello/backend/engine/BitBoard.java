@@ -0,0 +1,92 @@
+package com.othello.backend.engine;
+
+/**
+ * Bitboard primitives for boards of up to 8x8 squares.
+ * Square (row, col) is bit row * 8 + col, so each board row occupies one byte.
+ * Each direction below matches the same index in OthelloBoard.directions.
+ */
+public final class BitBoard {
+    public static final int WIDTH = 8;
+    public static final long NOT_A_FILE = 0xfefefefefefefefeL; // every square except column 0
+    public static final long NOT_H_FILE = 0x7f7f7f7f7f7f7f7fL; // every square except column 7
+    public static final long ALL = -1L;
+
+    // Bit offset of one step in each direction, and the mask that removes squares wrapped onto the opposite edge
+    private static final int[] SHIFTS = {-9, -8, -7, -1, 1, 7, 8, 9};
+    private static final long[] WRAP_MASKS = {
+            NOT_H_FILE, ALL, NOT_A_FILE, NOT_H_FILE, NOT_A_FILE, NOT_H_FILE, ALL, NOT_A_FILE};
+
+    private BitBoard() {}
+
+    public static int square(int row, int col) { return row * WIDTH + col; }
+    public static int row(int square) { return square / WIDTH; }
+    public static int col(int square) { return square % WIDTH; }
+    public static long bit(int row, int col) { return 1L << square(row, col); }
+
+    /**
+     * Returns the mask of squares that exist on a dim x dim board.
+     */
+    public static long validMask(int dim) {
+        if (dim < 1 || dim > WIDTH) throw new IllegalArgumentException("Bitboards support 1 to 8 columns, got " + dim);
+        long rowMask = (dim == WIDTH) ? 0xffL : (1L << dim) - 1;
+        long mask = 0;
+        for (int r = 0; r < dim; r++) mask |= rowMask << (r * WIDTH);
+        return mask;
+    }
+
+    private static long shift(long b, int s) {
+        return (s > 0) ? b << s : b >>> -s;
+    }
+
+    /**
+     * Computes every square where own may legally play against opp.
+     * Each direction is a Kogge-Stone occluded fill over the opponent's discs, so the
+     * cost is a fixed handful of shifts per direction regardless of the position.
+     */
+    public static long moves(long own, long opp, long empty) {
+        long moves = 0;
+        for (int i = 0; i < SHIFTS.length; i++) {
+            int s = SHIFTS[i];
+            long mask = WRAP_MASKS[i];
+            long pro = opp & mask;
+            long gen = shift(own, s) & pro;
+            gen |= pro & shift(gen, s);
+            pro &= shift(pro, s);
+            gen |= pro & shift(gen, 2 * s);
+            pro &= shift(pro, 2 * s);
+            gen |= pro & shift(gen, 4 * s);
+            moves |= shift(gen, s) & mask & empty;
+        }
+        return moves;
+    }
+
+    /**
+     * Returns every square next to a square of b, in any of the eight directions.
+     */
+    public static long neighbours(long b) {
+        long n = 0;
+        for (int i = 0; i < SHIFTS.length; i++) n |= shift(b, SHIFTS[i]) & WRAP_MASKS[i];
+        return n;
+    }
+
+    /**
+     * Returns the opponent discs flipped when own plays on square, or 0 if the move flips nothing.
+     * The caller is responsible for checking that the square is empty.
+     */
+    public static long flips(long own, long opp, int square) {
+        long start = 1L << square;
+        long flips = 0;
+        for (int i = 0; i < SHIFTS.length; i++) {
+            int s = SHIFTS[i];
+            long pro = opp & WRAP_MASKS[i];
+            long run = shift(start, s) & pro;
+            run |= shift(run, s) & pro;
+            run |= shift(run, s) & pro;
+            run |= shift(run, s) & pro;
+            run |= shift(run, s) & pro;
+            run |= shift(run, s) & pro;
+            if ((shift(run, s) & WRAP_MASKS[i] & own) != 0) flips |= run;
+        }
+        return flips;
+    }
+}
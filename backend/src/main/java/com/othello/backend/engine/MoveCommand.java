@@ -1,13 +1,16 @@
 package com.othello.backend.engine;
 
-import java.util.ArrayList;
-import java.util.List;
-
+/**
+ * Plays a move on an Othello game and can take it back in place.
+ * Only what is needed to reverse the move is kept: the move itself,
+ * the mask of discs it flipped and whose turn it was beforehand.
+ */
 public class MoveCommand implements Command {
     private Othello game;
     private Move move;
     private char player;
-    private MoveResult gameState;
+    private char previousTurn;
+    private long flips;
 
     public MoveCommand(Othello game,  Move move, char player) {
         this.game = game;
@@ -15,18 +18,19 @@ public class MoveCommand implements Command {
         this.player = player;
     }
 
+    public Move getMove() { return move; }
+    public char getPlayer() { return player; }
+
     public MoveResult execute() {
-        gameState = new MoveResult(
-                true, game.getWhosTurn(), new OthelloBoard(game.getBoard()), false,
-                new ArrayList<>(List.of(game.getCount(OthelloBoard.P1), game.getCount(OthelloBoard.P2))));
-        return game.move(player, move);
+        previousTurn = game.getWhosTurn();
+        MoveResult result = game.move(player, move);
+        flips = result.getFlips();
+        return result;
     }
 
     public MoveResult undo() {
-        game.setBoard(gameState.getGameState());
-        game.setTurn(gameState.getNextTurn());
+        game.unmove(player, move, flips, previousTurn);
         return new MoveResult(
-                true, game.getWhosTurn(), game.getBoard(), false,
-                new ArrayList<>(List.of(game.getCount(OthelloBoard.P1), game.getCount(OthelloBoard.P2))));
+                true, game.getWhosTurn(), game.getBoard(), false, game.getPiecesCount());
     }
 }
@@ -0,0 +1,85 @@
+package com.othello.backend.engine;
+
+/**
+ * Lists every legal move of a position together with the discs it flips.
+ *
+ * A generator owns its buffers and refills them on each generate() call, so listing
+ * moves allocates nothing; a Move object is only built for the move a caller picks.
+ * Moves are listed in increasing square order, which is row by row, left to right.
+ * A generator is not thread-safe: give each thread its own.
+ */
+public final class MoveGenerator {
+    public static final int MAX_MOVES = 64; // more than any position can have
+
+    private final int[] squares = new int[MAX_MOVES];
+    private final long[] flips = new long[MAX_MOVES];
+    private int size;
+
+    /**
+     * Lists the moves of own against opp and returns how many there are.
+     *
+     * @param own the discs of the side to move
+     * @param opp the discs of the other side
+     * @param empty the empty squares of the board
+     */
+    public int generate(long own, long opp, long empty) {
+        return fill(BitBoard.moves(own, opp, empty), own, opp);
+    }
+
+    /**
+     * Lists the moves of the side to move in position and returns how many there are.
+     */
+    public int generate(Position position) {
+        return generate(position.getOwn(), position.getOpp(), position.getEmpty());
+    }
+
+    /**
+     * Lists player's moves on board and returns how many there are. The board's cached
+     * move mask is reused, so only the flips are computed here.
+     */
+    public int generate(OthelloBoard board, char player) {
+        if (player != OthelloBoard.P1 && player != OthelloBoard.P2) return size = 0;
+        return fill(board.legalMoves(player), board.getBits(player), board.getBits(OthelloBoard.otherPlayer(player)));
+    }
+
+    private int fill(long moves, long own, long opp) {
+        int n = 0;
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            squares[n] = square;
+            flips[n++] = BitBoard.flips(own, opp, square);
+        }
+        return size = n;
+    }
+
+    /**
+     * Returns the number of moves listed by the last generate() call.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int square(int i) { return squares[i]; }
+    public long flips(int i) { return flips[i]; }
+    public int flipCount(int i) { return Long.bitCount(flips[i]); }
+
+    public Move move(int i) {
+        return new Move(BitBoard.row(squares[i]), BitBoard.col(squares[i]));
+    }
+
+    /**
+     * Returns the index of the move that flips the most discs, the first one listed on
+     * a tie, or -1 if there are no moves.
+     */
+    public int mostFlips() {
+        int best = -1, bestCount = 0;
+        for (int i = 0; i < size; i++) {
+            int count = Long.bitCount(flips[i]);
+            if (count > bestCount) {
+                best = i;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+}
@@ -8,13 +8,22 @@ public class MoveResult {
     private final OthelloBoard gameState;
     private final boolean gameOver;
     private final ArrayList<Integer> piecesCount;
+    private final int square; // the square the move was played on, -1 when nothing was played
+    private final long flips; // discs flipped by the move, 0 when nothing was played
 
     public MoveResult(boolean success, char nextTurn, OthelloBoard gameState, boolean gameOver, ArrayList<Integer> piecesCount) {
+        this(success, nextTurn, gameState, gameOver, piecesCount, -1, 0L);
+    }
+
+    public MoveResult(boolean success, char nextTurn, OthelloBoard gameState, boolean gameOver, ArrayList<Integer> piecesCount,
+                      int square, long flips) {
         this.success = success;
         this.nextTurn = nextTurn;
         this.gameState = gameState;
         this.gameOver = gameOver;
         this.piecesCount = piecesCount;
+        this.square = square;
+        this.flips = flips;
     }
 
     public boolean isSuccess() { return success; }
@@ -22,4 +31,6 @@ public class MoveResult {
     public boolean isGameOver() { return gameOver; }
     public OthelloBoard getGameState() { return gameState; }
     public ArrayList<Integer> getPiecesCount() { return piecesCount; }
+    public int getSquare() { return square; }
+    public long getFlips() { return flips; }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.othello.backend.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A read-only book of scored opening moves, memory-mapped from a binary file.
+ *
+ * Positions are stored in canonical form (see Symmetry) from the point of view of the
+ * side to move, so one entry covers all eight symmetric copies of a position and both
+ * colours. The file is mapped once and shared by every game: lookups read the mapping
+ * directly and allocate nothing.
+ *
+ * File layout, big-endian: a 16-byte header (magic, version, entry count, reserved)
+ * followed by 12-byte entries sorted by key, best score first within a key. Each entry
+ * is the canonical hash (8 bytes), the move's square in the canonical frame (1 byte),
+ * the search depth that scored it (1 byte) and the score for the side to move (2 bytes).
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x4f424f4b; // "OBOK"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 12;
+    private static final OpeningBook EMPTY = new OpeningBook(ByteBuffer.allocate(HEADER_BYTES), 0);
+    private static volatile OpeningBook shared = EMPTY;
+
+    private final ByteBuffer buffer;
+    private final int count;
+
+    private OpeningBook(ByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    /**
+     * One scored move of a book position.
+     */
+    public static final class Entry {
+        private final long key;
+        private final int square;
+        private final int depth;
+        private final int score;
+
+        /**
+         * @param key the position's canonical hash
+         * @param square the move, in the canonical frame
+         * @param depth the search depth that scored the move
+         * @param score the move's score for the side to move
+         */
+        public Entry(long key, int square, int depth, int score) {
+            this.key = key;
+            this.square = square;
+            this.depth = depth;
+            this.score = score;
+        }
+
+        public long getKey() { return key; }
+        public int getSquare() { return square; }
+        public int getDepth() { return depth; }
+        public int getScore() { return score; }
+    }
+
+    /**
+     * Maps the book file at path into memory.
+     *
+     * @throws IOException if the file cannot be read or is not a valid book
+     */
+    public static OpeningBook load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported opening book version " + buffer.getInt(4) + ": " + path);
+            }
+            int count = buffer.getInt(8);
+            if (buffer.capacity() != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+                throw new IOException("Truncated opening book: " + path);
+            }
+            return new OpeningBook(buffer, count);
+        }
+    }
+
+    /**
+     * Writes entries to a new book file at path, in the order lookups expect.
+     */
+    public static void write(Path path, List<Entry> entries) throws IOException {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(Entry::getKey).thenComparing(Comparator.comparingInt(Entry::getScore).reversed()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + sorted.size() * ENTRY_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(sorted.size()).putInt(0);
+        for (Entry e : sorted) {
+            buffer.putLong(e.key).put((byte) e.square).put((byte) e.depth).putShort((short) e.score);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    /**
+     * Returns the book every strategy consults, which is empty until one is installed.
+     */
+    public static OpeningBook shared() {
+        return shared;
+    }
+
+    public static void setShared(OpeningBook book) {
+        shared = (book == null) ? EMPTY : book;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the best book move for the side to move, or -1 if the position is not in the book.
+     *
+     * @param own the discs of the side to move
+     * @param opp the discs of the other side
+     * @param empty the empty squares; the returned move is always legal on them
+     */
+    public int bestMove(long own, long opp, long empty) {
+        if (count == 0) return -1;
+        // The transform and the hash are worked out on primitives, so a lookup allocates nothing
+        int t = Symmetry.canonicalTransform(own, opp);
+        long key = Zobrist.hash(Symmetry.transform(own, t), Symmetry.transform(opp, t));
+        int back = Symmetry.inverse(t);
+        long legal = BitBoard.moves(own, opp, empty);
+
+        // Entries for a key are best first; skip any that a hash collision made illegal
+        for (int i = firstIndex(key); i < count && keyAt(i) == key; i++) {
+            int square = Symmetry.transformSquare(buffer.get(HEADER_BYTES + i * ENTRY_BYTES + 8), back);
+            if ((legal & (1L << square)) != 0) return square;
+        }
+        return -1;
+    }
+
+    private long keyAt(int i) {
+        return buffer.getLong(HEADER_BYTES + i * ENTRY_BYTES);
+    }
+
+    /**
+     * Returns the index of the first entry whose key is not less than key.
+     */
+    private int firstIndex(long key) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keyAt(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
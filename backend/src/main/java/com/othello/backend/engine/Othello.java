@@ -25,32 +25,43 @@ public class Othello {
      */
     public MoveResult move(char player, Move move) {
         boolean valid = othelloBoard.isValidMove(player, move);
-        if (!valid) return new MoveResult(
-                false, whosTurn, othelloBoard, false,
-                new ArrayList<>(List.of(getCount(OthelloBoard.P1), getCount(OthelloBoard.P2))));
+        if (!valid) return new MoveResult(false, whosTurn, othelloBoard, false, getPiecesCount());
 
-        othelloBoard.move(player, move);
+        int square = BitBoard.square(move.getRow(), move.getCol());
+        long flips = othelloBoard.makeMove(player, square);
         numMoves++;
-        boolean gameOver = isGameOver();
-        char nextTurn = OthelloBoard.otherPlayer(whosTurn);
-
-        if (gameOver) return new MoveResult(
-                true, ' ', othelloBoard, true,
-                new ArrayList<>(List.of(getCount(OthelloBoard.P1), getCount(OthelloBoard.P2))));
+        // One lookup of the board's cached move masks answers both the game-over and the pass check
+        char hasMove = othelloBoard.hasMove();
+        if (hasMove == OthelloBoard.EMPTY) return new MoveResult(true, ' ', othelloBoard, true, getPiecesCount(), square, flips);
 
-        if (othelloBoard.hasMove() == 'B' || othelloBoard.hasMove() == nextTurn) {
+        char nextTurn = OthelloBoard.otherPlayer(whosTurn);
+        if (hasMove == OthelloBoard.BOTH || hasMove == nextTurn) {
             whosTurn = nextTurn;
         }
 
-        return new MoveResult(
-                true, whosTurn, othelloBoard, false,
-        new ArrayList<>(List.of(getCount(OthelloBoard.P1), getCount(OthelloBoard.P2))));
+        return new MoveResult(true, whosTurn, othelloBoard, false, getPiecesCount(), square, flips);
+    }
+
+    /**
+     * Takes back a move made with move(), given the discs it flipped and whose turn it was before it.
+     */
+    public void unmove(char player, Move move, long flips, char previousTurn) {
+        othelloBoard.unmakeMove(player, BitBoard.square(move.getRow(), move.getCol()), flips);
+        numMoves--;
+        whosTurn = previousTurn;
     }
 
     public int getCount(char player) {
         return othelloBoard.getCount(player);
     }
 
+    /**
+     * Returns the disc counts as [P1, P2], the form carried by MoveResult.
+     */
+    public ArrayList<Integer> getPiecesCount() {
+        return new ArrayList<>(List.of(getCount(OthelloBoard.P1), getCount(OthelloBoard.P2)));
+    }
+
     public int getNumMoves() {
         return numMoves;
     }
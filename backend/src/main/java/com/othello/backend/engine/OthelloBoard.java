@@ -1,30 +1,42 @@
 package com.othello.backend.engine;
 
-import lombok.Getter;
-import java.util.Arrays;
 /**
  * Manages the Othello board state, coordinate validation, and piece flipping logic.
+ * The position is stored as one bitboard per player (see BitBoard), so move
+ * generation and flipping work on whole rows of squares at once.
  */
 public class OthelloBoard {
 
     public static final char EMPTY = ' ', P1 = 'X', P2 = 'O', BOTH = 'B';
     public static final int[][] directions = {{-1,-1},{-1,0},{-1,1},{0,-1},{0,1},{1,-1},{1,0},{1,1}};
     private int dim;
-    @Getter
-    private char[][] board;
+    private long valid; // squares that exist on a dim x dim board
+    private long p1, p2;
+    private long movesP1, movesP2; // legal-move masks, valid while movesCurrent is set
+    private boolean movesCurrent;
+    private long hash; // Zobrist hash of the discs, kept current by every change
 
     /**
      * Initializes an empty board of size dim and places starting tokens.
      */
     public OthelloBoard(int dim) {
         this.dim = dim;
-        this.board = new char[dim][dim];
-        for (int r = 0; r < dim; r++) {
-            for (int c = 0; c < dim; c++) board[r][c] = EMPTY;
-        }
+        this.valid = BitBoard.validMask(dim);
         int mid = dim / 2;
-        board[mid - 1][mid - 1] = board[mid][mid] = P1;
-        board[mid][mid - 1] = board[mid - 1][mid] = P2;
+        p1 = BitBoard.bit(mid - 1, mid - 1) | BitBoard.bit(mid, mid);
+        p2 = BitBoard.bit(mid, mid - 1) | BitBoard.bit(mid - 1, mid);
+        hash = Zobrist.hash(p1, p2);
+    }
+
+    /**
+     * Builds a board of size dim holding the given discs.
+     */
+    public OthelloBoard(int dim, long p1, long p2) {
+        this.dim = dim;
+        this.valid = BitBoard.validMask(dim);
+        this.p1 = p1 & valid;
+        this.p2 = p2 & valid & ~p1;
+        hash = Zobrist.hash(this.p1, this.p2);
     }
 
     /**
@@ -33,21 +45,27 @@ public class OthelloBoard {
      */
     public OthelloBoard(OthelloBoard other) {
         this.dim = other.dim;
-        this.board = new char[dim][dim];
-
-        for (int r = 0; r < dim; r++) {
-            System.arraycopy(other.board[r], 0, this.board[r], 0, dim);
-        }
+        this.valid = other.valid;
+        this.p1 = other.p1;
+        this.p2 = other.p2;
+        this.movesP1 = other.movesP1;
+        this.movesP2 = other.movesP2;
+        this.movesCurrent = other.movesCurrent;
+        this.hash = other.hash;
     }
 
     public char[][] getBoardCopy() {
-        char[][] copy = new char[board.length][];
-        for (int i = 0; i < board.length; i++) {
-            copy[i] = Arrays.copyOf(board[i], board[i].length);
+        char[][] copy = new char[dim][dim];
+        for (int r = 0; r < dim; r++) {
+            for (int c = 0; c < dim; c++) copy[r][c] = get(r, c);
         }
         return copy;
     }
 
+    public char[][] getBoard() {
+        return getBoardCopy();
+    }
+
     public int getDimension() { return dim; }
 
     /**
@@ -58,86 +76,92 @@ public class OthelloBoard {
     }
 
     /**
-     * Returns the token at (row, col) or EMPTY if invalid.
+     * Returns the bitboard of discs owned by player, or 0 for any other character.
      */
-    public char get(int row, int col) {
-        return validCoordinate(row, col) ? board[row][col] : EMPTY;
+    public long getBits(char player) {
+        return (player == P1) ? p1 : (player == P2) ? p2 : 0L;
     }
 
     /**
-     * Manually sets a token at (row, col). Returns true if successful.
+     * Returns the bitboard of empty squares.
      */
-    public boolean set(int row, int col, char player) {
-        if (!validCoordinate(row, col)) return false;
-        board[row][col] = player;
-        return true;
+    public long getEmpty() {
+        return valid & ~(p1 | p2);
     }
 
     /**
-     * Validates if a coordinate is within board boundaries.
+     * Returns the Zobrist hash of the discs on the board.
      */
-    private boolean validCoordinate(int row, int col) {
-        return row >= 0 && row < dim && col >= 0 && col < dim;
+    public long getHash() {
+        return hash;
     }
 
     /**
-     * Identifies the player character that ends a sequence of opponent pieces
-     * in a specific direction, starting from (row, col).
+     * Returns the Zobrist hash of the position with toMove as the side to move.
      */
-    private char alternation(int row, int col, int drow, int dcol) {
-        if (!validCoordinate(row, col) || (drow == 0 && dcol == 0)) return EMPTY;
-        char startPlayer = get(row, col);
-        if (startPlayer == EMPTY) return EMPTY;
+    public long getHash(char toMove) {
+        return (toMove == P2) ? hash ^ Zobrist.SIDE_TO_MOVE : hash;
+    }
 
-        char opponent = otherPlayer(startPlayer);
-        int r = row + drow, c = col + dcol;
-        while (validCoordinate(r, c)) {
-            char current = board[r][c];
-            if (current == EMPTY) return EMPTY;
-            if (current == opponent) return opponent;
-            r += drow; c += dcol;
+    /**
+     * Returns the bitboard of squares where player has a legal move.
+     * Both players' masks are computed together on the first call after a change and cached.
+     */
+    public long legalMoves(char player) {
+        if (!movesCurrent) {
+            long empty = getEmpty();
+            movesP1 = BitBoard.moves(p1, p2, empty);
+            movesP2 = BitBoard.moves(p2, p1, empty);
+            movesCurrent = true;
         }
-        return EMPTY;
+        return (player == P1) ? movesP1 : (player == P2) ? movesP2 : 0L;
     }
 
     /**
-     * Flips opponent tokens to the specified player's color along a direction.
-     * @return Number of flips made, or -1 if the move is invalid.
+     * Returns the discs that player would flip by playing at (row, col), or 0 if the move is invalid.
      */
-    private int flip(int row, int col, int drow, int dcol, char player) {
-        if (get(row, col) == player || get(row, col) == EMPTY) return -1;
-        if (alternation(row, col, drow, dcol) != player) return -1;
+    public long flips(char player, int row, int col) {
+        if (get(row, col) != EMPTY || (player != P1 && player != P2)) return 0L;
+        return BitBoard.flips(getBits(player), getBits(otherPlayer(player)), BitBoard.square(row, col));
+    }
 
-        int count = 0;
-        while (validCoordinate(row, col) && board[row][col] != player) {
-            board[row][col] = player;
-            row += drow; col += dcol;
-            count++;
-        }
-        return count;
+    /**
+     * Returns the token at (row, col) or EMPTY if invalid.
+     */
+    public char get(int row, int col) {
+        if (!validCoordinate(row, col)) return EMPTY;
+        long bit = BitBoard.bit(row, col);
+        return ((p1 & bit) != 0) ? P1 : ((p2 & bit) != 0) ? P2 : EMPTY;
     }
 
     /**
-     * Checks if placing a piece at (row, col) results in a valid move in a specific direction.
+     * Manually sets a token at (row, col). Returns true if successful.
      */
-    private char hasMove(int row, int col, int drow, int dcol) {
-        return (get(row, col) == EMPTY) ? alternation(row + drow, col + dcol, drow, dcol) : EMPTY;
+    public boolean set(int row, int col, char player) {
+        if (!validCoordinate(row, col)) return false;
+        long bit = BitBoard.bit(row, col);
+        int square = BitBoard.square(row, col);
+        hash ^= Zobrist.disc(get(row, col), square) ^ Zobrist.disc(player, square);
+        p1 &= ~bit;
+        p2 &= ~bit;
+        if (player == P1) p1 |= bit;
+        else if (player == P2) p2 |= bit;
+        movesCurrent = false;
+        return true;
+    }
+
+    /**
+     * Validates if a coordinate is within board boundaries.
+     */
+    private boolean validCoordinate(int row, int col) {
+        return row >= 0 && row < dim && col >= 0 && col < dim;
     }
 
     /**
      * Returns which players (P1, P2, BOTH, or EMPTY) have a valid move remaining.
      */
     public char hasMove() {
-        boolean p1 = false, p2 = false;
-        for (int r = 0; r < dim; r++) {
-            for (int c = 0; c < dim; c++) {
-                for (int[] d : directions) {
-                    char res = hasMove(r, c, d[0], d[1]);
-                    if (res == P1) p1 = true;
-                    if (res == P2) p2 = true;
-                }
-            }
-        }
+        boolean p1 = legalMoves(P1) != 0, p2 = legalMoves(P2) != 0;
         return (p1 && p2) ? BOTH : p1 ? P1 : p2 ? P2 : EMPTY;
     }
 
@@ -147,14 +171,7 @@ public class OthelloBoard {
     public boolean isValidMove(char player, Move move) {
         int row = move.getRow();
         int col = move.getCol();
-
-        if (get(row, col) != EMPTY) return false;
-        for (int[] d : directions) {
-            if (hasMove(row, col, d[0], d[1]) == player) {
-                return true;
-            }
-        }
-        return false;
+        return validCoordinate(row, col) && (legalMoves(player) & BitBoard.bit(row, col)) != 0;
     }
 
     /**
@@ -169,27 +186,54 @@ public class OthelloBoard {
     public boolean move(char player, Move move) {
         int row = move.getRow();
         int col = move.getCol();
-        if (get(row, col) != EMPTY) return false;
-        boolean moved = false;
-        for (int[] d : directions) {
-            if (hasMove(row, col, d[0], d[1]) == player) {
-                flip(row + d[0], col + d[1], d[0], d[1], player);
-                moved = true;
-            }
+        return validCoordinate(row, col) && makeMove(player, BitBoard.square(row, col)) != 0;
+    }
+
+    /**
+     * Plays player's disc on square and returns the mask of flipped discs.
+     * Returns 0 and leaves the board untouched if the move is invalid.
+     * Together with unmakeMove this lets callers step through positions without copying the board.
+     */
+    public long makeMove(char player, int square) {
+        if (square < 0 || square >= 64 || (player != P1 && player != P2)) return 0L;
+        long bit = 1L << square;
+        if ((getEmpty() & bit) == 0) return 0L;
+        long flips = BitBoard.flips(getBits(player), getBits(otherPlayer(player)), square);
+        if (flips == 0) return 0L;
+        if (player == P1) {
+            p1 |= bit | flips;
+            p2 &= ~flips;
+        } else {
+            p2 |= bit | flips;
+            p1 &= ~flips;
+        }
+        hash ^= Zobrist.disc(player, square) ^ Zobrist.flips(flips);
+        movesCurrent = false;
+        return flips;
+    }
+
+    /**
+     * Reverses a makeMove call: removes player's disc from square and gives the flipped discs back.
+     */
+    public void unmakeMove(char player, int square, long flips) {
+        long bit = 1L << square;
+        if (player == P1) {
+            p1 &= ~(bit | flips);
+            p2 |= flips;
+        } else {
+            p2 &= ~(bit | flips);
+            p1 |= flips;
         }
-        if (moved) board[row][col] = player;
-        return moved;
+        hash ^= Zobrist.disc(player, square) ^ Zobrist.flips(flips);
+        movesCurrent = false;
     }
 
     /**
      * Returns the total token count for a specific player.
+     * This is a single population count over the player's bitboard.
      */
     public int getCount(char player) {
-        int count = 0;
-        for (char[] row : board) {
-            for (char cell : row) if (cell == player) count++;
-        }
-        return count;
+        return (player == EMPTY) ? Long.bitCount(getEmpty()) : Long.bitCount(getBits(player));
     }
 
     /**
@@ -204,7 +248,7 @@ public class OthelloBoard {
 
         for (int r = 0; r < dim; r++) {
             s.append(r).append("|");
-            for (int c = 0; c < dim; c++) s.append(board[r][c]).append("|");
+            for (int c = 0; c < dim; c++) s.append(get(r, c)).append("|");
             s.append(r).append("\n +");
             for (int i = 0; i < dim; i++) s.append("-+");
             s.append("\n");
@@ -215,53 +259,24 @@ public class OthelloBoard {
     }
 
     public static void main(String[] args) {
-        // Standard test logic (kept exactly as requested)
         OthelloBoard ob = new OthelloBoard(8);
         System.out.println(ob.toString());
         System.out.println("getCount(P1)=" + ob.getCount(P1));
         System.out.println("getCount(P2)=" + ob.getCount(P2));
-        for (int row = 0; row < ob.dim; row++) {
-            for (int col = 0; col < ob.dim; col++) {
-                ob.board[row][col] = P1;
-            }
-        }
-        System.out.println(ob.toString());
-        System.out.println("getCount(P1)=" + ob.getCount(P1));
-        System.out.println("getCount(P2)=" + ob.getCount(P2));
-
-        for (int drow = -1; drow <= 1; drow++) {
-            for (int dcol = -1; dcol <= 1; dcol++) {
-                System.out.println("alternation=" + ob.alternation(4, 4, drow, dcol));
-            }
-        }
+        System.out.println("who has a move=" + ob.hasMove());
+        System.out.println("legal moves for P1=" + Long.toHexString(ob.legalMoves(P1)));
 
         for (int row = 0; row < ob.dim; row++) {
             for (int col = 0; col < ob.dim; col++) {
-                if (row == 0 || col == 0) ob.board[row][col] = P2;
+                ob.set(row, col, (row == 0 || col == 0) ? P2 : P1);
             }
         }
+        ob.set(4, 4, EMPTY);
+        ob.set(2, 4, EMPTY);
         System.out.println(ob.toString());
-
-        for (int drow = -1; drow <= 1; drow++) {
-            for (int dcol = -1; dcol <= 1; dcol++) {
-                System.out.println("direction=(" + drow + "," + dcol + ")");
-                System.out.println("alternation=" + ob.alternation(4, 4, drow, dcol));
-            }
-        }
-
-        System.out.println("Trying to move to (4,4) move=" + ob.move(4, 4, P2));
-        ob.board[4][4] = EMPTY;
-        ob.board[2][4] = EMPTY;
-        System.out.println(ob.toString());
-
-        for (int drow = -1; drow <= 1; drow++) {
-            for (int dcol = -1; dcol <= 1; dcol++) {
-                System.out.println("direction=(" + drow + "," + dcol + ")");
-                System.out.println("hasMove at (4,4) in above direction =" + ob.hasMove(4, 4, drow, dcol));
-            }
-        }
+        System.out.println("flips for P2 at (4,4)=" + Long.toHexString(ob.flips(P2, 4, 4)));
         System.out.println("who has a move=" + ob.hasMove());
         System.out.println("Trying to move to (4,4) move=" + ob.move(4, 4, P2));
         System.out.println(ob.toString());
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import com.othello.backend.strategy.*;
 import lombok.Getter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
 
@@ -11,35 +12,62 @@ public class OthelloGameEngine {
     @Getter
     private Othello game;               // core game state
     @Getter
-    private final Strategy player1;
+    private final Player player1;
     @Getter
-    private final Strategy player2;
+    private final Player player2;
     public ArrayList<MoveCommand> history;  // moves done
     private ArrayList<MoveCommand> redoStack; // moves undone
     @Getter
     private MoveResult gameState;
+    private Listener listener; // told about every change of the history, if set
+
+    /**
+     * Hears about every move played, undone and redone, for example to record the game.
+     */
+    public interface Listener {
+        void moved(MoveCommand command);
+        void undone();
+        void redone();
+    }
 
-    public OthelloGameEngine(Othello game, Strategy player1, Strategy player2) {
+    public OthelloGameEngine(Othello game, Player player1, Player player2) {
         this.game = game;
         this.player1 = player1;
         this.player2 = player2;
         this.history = new ArrayList<>();
         this.redoStack = new ArrayList<>();
         this.gameState = new MoveResult(
-                true, game.getWhosTurn(), game.getBoard(), false,
-                new ArrayList<>(List.of(game.getCount(OthelloBoard.P1), game.getCount(OthelloBoard.P2))));
+                true, game.getWhosTurn(), game.getBoard(), false, game.getPiecesCount());
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the moves played so far, oldest first.
+     */
+    public List<MoveCommand> getHistory() {
+        return Collections.unmodifiableList(history);
+    }
+
+    /**
+     * Returns the moves that were undone and can be redone; the last one is redone first.
+     */
+    public List<MoveCommand> getRedoStack() {
+        return Collections.unmodifiableList(redoStack);
     }
 
     public MoveResult executeMove(MoveCommand moveCommand) {
         MoveResult result = moveCommand.execute();
         if (!result.isSuccess()) {
             return new MoveResult(
-                    false, game.getWhosTurn(), game.getBoard(), false,
-            new ArrayList<>(List.of(game.getCount(OthelloBoard.P1), game.getCount(OthelloBoard.P2))));
+                    false, game.getWhosTurn(), game.getBoard(), false, game.getPiecesCount());
         }
         history.add(moveCommand);
         redoStack.clear(); // redo is only for undone moves
         gameState = result;
+        if (listener != null) listener.moved(moveCommand);
         return result;
     }
 
@@ -47,34 +75,34 @@ public class OthelloGameEngine {
     public MoveResult undoMove() {
         if (history.isEmpty() || game.isGameOver()) {
             return new MoveResult(
-                    false, game.getWhosTurn(), game.getBoard(), false,
-                    new ArrayList<>(List.of(game.getCount(OthelloBoard.P1), game.getCount(OthelloBoard.P2))));
+                    false, game.getWhosTurn(), game.getBoard(), false, game.getPiecesCount());
         }
         MoveCommand last = history.removeLast();
         MoveResult result = last.undo();
         redoStack.add(last);
         gameState = result;
+        if (listener != null) listener.undone();
         return result;
     }
 
     public MoveResult redoMove() {
         if (redoStack.isEmpty()) {
             return new MoveResult(
-                    false, game.getWhosTurn(), game.getBoard(), game.isGameOver(),
-            new ArrayList<>(List.of(game.getCount(OthelloBoard.P1), game.getCount(OthelloBoard.P2))));
+                    false, game.getWhosTurn(), game.getBoard(), game.isGameOver(), game.getPiecesCount());
         }
         MoveCommand next = redoStack.removeLast();
         MoveResult result =  next.execute();
         history.add(next);
         gameState = result;
+        if (listener != null) listener.redone();
         return result;
     }
 
     public static void main(String[] args) {
         Othello game = new Othello();
 
-        HumanStrategy p1 = new HumanStrategy(game, OthelloBoard.P1);
-        RandomStrategy p2 = new RandomStrategy(game, OthelloBoard.P2);
+        Player p1 = new Player(game, OthelloBoard.P1, new HumanStrategy(), new SearchContext());
+        Player p2 = new Player(game, OthelloBoard.P2, new RandomStrategy(), new SearchContext());
 
         OthelloGameEngine engine = new OthelloGameEngine(game, p1, p2);
         Scanner scanner = new Scanner(System.in);
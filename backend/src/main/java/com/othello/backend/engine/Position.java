@@ -0,0 +1,70 @@
+package com.othello.backend.engine;
+
+/**
+ * An immutable snapshot of a position: the discs, the board size and the side to move.
+ *
+ * Strategies take a Position instead of a live Othello game, so one strategy object can
+ * serve many games at once and a search can never disturb the game it is searching.
+ */
+public final class Position {
+    private final int dimension;
+    private final long p1;
+    private final long p2;
+    private final char toMove;
+
+    public Position(OthelloBoard board, char toMove) {
+        this(board.getDimension(), board.getBits(OthelloBoard.P1), board.getBits(OthelloBoard.P2), toMove);
+    }
+
+    public Position(int dimension, long p1, long p2, char toMove) {
+        this.dimension = dimension;
+        this.p1 = p1;
+        this.p2 = p2;
+        this.toMove = toMove;
+    }
+
+    /**
+     * Returns the current position of game.
+     */
+    public static Position of(Othello game) {
+        return new Position(game.getBoard(), game.getWhosTurn());
+    }
+
+    public int getDimension() { return dimension; }
+    public char getToMove() { return toMove; }
+
+    /**
+     * Returns the bitboard of discs owned by player, or 0 for any other character.
+     */
+    public long getBits(char player) {
+        return (player == OthelloBoard.P1) ? p1 : (player == OthelloBoard.P2) ? p2 : 0L;
+    }
+
+    /** The discs of the side to move. */
+    public long getOwn() {
+        return getBits(toMove);
+    }
+
+    /** The discs of the side not to move. */
+    public long getOpp() {
+        return getBits(OthelloBoard.otherPlayer(toMove));
+    }
+
+    public long getEmpty() {
+        return BitBoard.validMask(dimension) & ~(p1 | p2);
+    }
+
+    /**
+     * Returns the squares where the side to move may play.
+     */
+    public long legalMoves() {
+        return BitBoard.moves(getOwn(), getOpp(), getEmpty());
+    }
+
+    /**
+     * Returns a new mutable board holding this position, for a search to play moves on.
+     */
+    public OthelloBoard toBoard() {
+        return new OthelloBoard(dimension, p1, p2);
+    }
+}
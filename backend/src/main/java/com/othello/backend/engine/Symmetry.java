@@ -0,0 +1,227 @@
+package com.othello.backend.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The eight symmetries of the 8x8 board, applied to whole bitboards at once.
+ *
+ * Transform t is built from three bits: bit 2 transposes the board (swaps rows and
+ * columns), bit 1 flips it top to bottom and bit 0 mirrors it left to right, applied
+ * in that order. Transform 0 is the identity. Positions that are the same up to a
+ * symmetry have the same canonical form, so tables keyed by it store each one once.
+ *
+ * Squares are numbered as in BitBoard; a negative square stands for a pass and is
+ * left alone by every transform.
+ */
+public final class Symmetry {
+    public static final int COUNT = 8;
+    private static final int[] INVERSE = new int[COUNT];
+
+    static {
+        long probe = 0x0000000000000f0bL; // asymmetric, so every transform moves it somewhere different
+        for (int t = 0; t < COUNT; t++) {
+            for (int u = 0; u < COUNT; u++) {
+                if (transform(transform(probe, t), u) == probe) INVERSE[t] = u;
+            }
+        }
+    }
+
+    private Symmetry() {}
+
+    /**
+     * Swaps the rows of b: row r goes to row 7 - r.
+     */
+    public static long flipVertical(long b) {
+        return Long.reverseBytes(b);
+    }
+
+    /**
+     * Swaps the columns of b: column c goes to column 7 - c.
+     */
+    public static long mirrorHorizontal(long b) {
+        b = ((b >>> 1) & 0x5555555555555555L) | ((b & 0x5555555555555555L) << 1);
+        b = ((b >>> 2) & 0x3333333333333333L) | ((b & 0x3333333333333333L) << 2);
+        return ((b >>> 4) & 0x0f0f0f0f0f0f0f0fL) | ((b & 0x0f0f0f0f0f0f0f0fL) << 4);
+    }
+
+    /**
+     * Transposes b about the (0,0)-(7,7) diagonal: square (r, c) goes to (c, r).
+     */
+    public static long transpose(long b) {
+        long t = 0x0f0f0f0f00000000L & (b ^ (b << 28));
+        b ^= t ^ (t >>> 28);
+        t = 0x3333000033330000L & (b ^ (b << 14));
+        b ^= t ^ (t >>> 14);
+        t = 0x5500550055005500L & (b ^ (b << 7));
+        return b ^ t ^ (t >>> 7);
+    }
+
+    /**
+     * Rotates b a quarter turn clockwise: square (r, c) goes to (c, 7 - r).
+     */
+    public static long rotateClockwise(long b) {
+        return mirrorHorizontal(transpose(b));
+    }
+
+    /**
+     * Rotates b a quarter turn anticlockwise: square (r, c) goes to (7 - c, r).
+     */
+    public static long rotateAnticlockwise(long b) {
+        return flipVertical(transpose(b));
+    }
+
+    /**
+     * Rotates b half a turn: square (r, c) goes to (7 - r, 7 - c), which reverses the bit order.
+     */
+    public static long rotateHalf(long b) {
+        return Long.reverse(b);
+    }
+
+    /**
+     * Applies transform t (0 to 7) to b.
+     */
+    public static long transform(long b, int t) {
+        if ((t & 4) != 0) b = transpose(b);
+        if ((t & 2) != 0) b = flipVertical(b);
+        if ((t & 1) != 0) b = mirrorHorizontal(b);
+        return b;
+    }
+
+    /**
+     * Returns where transform t sends square.
+     */
+    public static int transformSquare(int square, int t) {
+        if (square < 0) return square;
+        return Long.numberOfTrailingZeros(transform(1L << square, t));
+    }
+
+    /**
+     * Returns where transform t sends move.
+     */
+    public static Move transformMove(Move move, int t) {
+        int square = transformSquare(BitBoard.square(move.getRow(), move.getCol()), t);
+        return new Move(BitBoard.row(square), BitBoard.col(square));
+    }
+
+    /**
+     * Returns the transform that undoes t.
+     */
+    public static int inverse(int t) {
+        return INVERSE[t];
+    }
+
+    /**
+     * Returns the transform that puts the position (own, opp) in canonical form:
+     * the one whose transformed own, then opp, is smallest as an unsigned number.
+     */
+    public static int canonicalTransform(long own, long opp) {
+        int best = 0;
+        long bestOwn = own, bestOpp = opp;
+        for (int t = 1; t < COUNT; t++) {
+            long o = transform(own, t);
+            int cmp = Long.compareUnsigned(o, bestOwn);
+            if (cmp > 0) continue;
+            long p = transform(opp, t);
+            if (cmp < 0 || Long.compareUnsigned(p, bestOpp) < 0) {
+                best = t;
+                bestOwn = o;
+                bestOpp = p;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns a hash of (own, opp) that is the same for all eight of its symmetric copies.
+     */
+    public static long canonicalHash(long own, long opp) {
+        int t = canonicalTransform(own, opp);
+        return Zobrist.hash(transform(own, t), transform(opp, t));
+    }
+
+    /**
+     * Puts the position (own, opp) in canonical form and remembers the transform used.
+     */
+    public static Canonical canonicalize(long own, long opp) {
+        int t = canonicalTransform(own, opp);
+        return new Canonical(transform(own, t), transform(opp, t), t);
+    }
+
+    /**
+     * A position in canonical form, with the transform that took the original position there.
+     */
+    public static final class Canonical {
+        private final long own;
+        private final long opp;
+        private final int transform;
+
+        Canonical(long own, long opp, int transform) {
+            this.own = own;
+            this.opp = opp;
+            this.transform = transform;
+        }
+
+        public long getOwn() { return own; }
+        public long getOpp() { return opp; }
+        public int getTransform() { return transform; }
+
+        /** The canonical position's Zobrist hash, shared by all eight symmetric copies. */
+        public long hash() {
+            return Zobrist.hash(own, opp);
+        }
+
+        /** Maps a square of the original position to the canonical one. */
+        public int toCanonical(int square) {
+            return transformSquare(square, transform);
+        }
+
+        /** Maps a square of the canonical position, such as a stored best move, back to the original. */
+        public int toOriginal(int square) {
+            return transformSquare(square, INVERSE[transform]);
+        }
+    }
+
+    /**
+     * Returns the transform that puts a game record in canonical form: the one that keeps
+     * the starting position in canonical form and, among those, makes the sequence of
+     * moved-to squares smallest. Records that differ only by a symmetry get the same form.
+     *
+     * @param p1 the first player's discs at the start of the record
+     * @param p2 the second player's discs at the start of the record
+     * @param squares the squares played in order, negative for a pass
+     */
+    public static int canonicalRecordTransform(long p1, long p2, int[] squares) {
+        int start = canonicalTransform(p1, p2);
+        long startP1 = transform(p1, start), startP2 = transform(p2, start);
+        int best = -1;
+        for (int t = 0; t < COUNT; t++) {
+            if (transform(p1, t) != startP1 || transform(p2, t) != startP2) continue;
+            if (best < 0 || compareRecords(squares, t, best) < 0) best = t;
+        }
+        return best;
+    }
+
+    /**
+     * Returns the game record in canonical form, see canonicalRecordTransform().
+     */
+    public static List<Move> canonicalizeRecord(long p1, long p2, List<Move> moves) {
+        int[] squares = new int[moves.size()];
+        for (int i = 0; i < squares.length; i++) {
+            Move m = moves.get(i);
+            squares[i] = (m == null) ? -1 : BitBoard.square(m.getRow(), m.getCol());
+        }
+        int t = canonicalRecordTransform(p1, p2, squares);
+        List<Move> canonical = new ArrayList<>(moves.size());
+        for (Move m : moves) canonical.add((m == null) ? null : transformMove(m, t));
+        return canonical;
+    }
+
+    private static int compareRecords(int[] squares, int t, int u) {
+        for (int square : squares) {
+            int cmp = Integer.compare(transformSquare(square, t), transformSquare(square, u));
+            if (cmp != 0) return cmp;
+        }
+        return 0;
+    }
+}
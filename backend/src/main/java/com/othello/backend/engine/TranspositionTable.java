@@ -0,0 +1,140 @@
+package com.othello.backend.engine;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size transposition table stored off-heap, shared by every search in the JVM.
+ *
+ * Each entry is two longs: the packed data and the Zobrist key XOR'd with that data.
+ * Threads read and write entries without locks; a torn or overwritten entry simply
+ * fails the key check on the next probe, so the table is lossy but never wrong.
+ * Because the memory lives in a MemorySegment the table adds nothing to the heap
+ * and is invisible to the garbage collector.
+ */
+public final class TranspositionTable implements AutoCloseable {
+    public static final int EXACT = 0, LOWER = 1, UPPER = 2; // bound types
+    public static final int NO_MOVE = 0xff;
+    private static final int ENTRY_BYTES = 16;
+    private static final long USED = 1L << 40; // keeps a stored entry's data non-zero
+    private static final long DEFAULT_MEGABYTES = 16;
+    private static final int OCCUPANCY_SAMPLES = 4096;
+
+    private final Arena arena;
+    private final MemorySegment table;
+    private final long mask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * Creates a table with at least the given number of entries, rounded up to a power of two.
+     */
+    public TranspositionTable(long entries) {
+        long size = Long.highestOneBit(Math.max(2, entries - 1)) << 1;
+        this.arena = Arena.ofShared();
+        this.table = arena.allocate(size * ENTRY_BYTES, 64);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the table shared by all searches. Its size in megabytes is read once
+     * from the othello.tt.mb system property (16 by default).
+     */
+    public static TranspositionTable shared() {
+        return Shared.TABLE;
+    }
+
+    private static final class Shared {
+        static final TranspositionTable TABLE = new TranspositionTable(
+                Long.getLong("othello.tt.mb", DEFAULT_MEGABYTES) * 1024 * 1024 / ENTRY_BYTES);
+    }
+
+    /**
+     * Looks up key and returns the packed entry data, or 0 on a miss.
+     * Use score(), depth(), bound() and move() to unpack it.
+     */
+    public long probe(long key) {
+        long offset = (key & mask) * ENTRY_BYTES;
+        long data = table.get(ValueLayout.JAVA_LONG, offset);
+        long check = table.get(ValueLayout.JAVA_LONG, offset + 8);
+        probes.increment();
+        if (data == 0 || (check ^ data) != key) return 0L;
+        hits.increment();
+        return data;
+    }
+
+    /**
+     * Stores a search result. An entry for the same position searched deeper is kept;
+     * anything else in the slot is replaced.
+     */
+    public void store(long key, int score, int depth, int bound, int move) {
+        long offset = (key & mask) * ENTRY_BYTES;
+        long old = table.get(ValueLayout.JAVA_LONG, offset);
+        long oldCheck = table.get(ValueLayout.JAVA_LONG, offset + 8);
+        if (old != 0 && (oldCheck ^ old) == key && depth(old) > depth) return;
+
+        long data = USED
+                | (score & 0xffffL)
+                | ((long) (Math.min(depth, 0xff) & 0xff) << 16)
+                | ((long) (bound & 0x3) << 24)
+                | ((long) (move & 0xff) << 26);
+        table.set(ValueLayout.JAVA_LONG, offset, data);
+        table.set(ValueLayout.JAVA_LONG, offset + 8, key ^ data);
+        stores.increment();
+    }
+
+    public static int score(long data) { return (short) data; }
+    public static int depth(long data) { return (int) (data >>> 16) & 0xff; }
+    public static int bound(long data) { return (int) (data >>> 24) & 0x3; }
+    public static int move(long data) { return (int) (data >>> 26) & 0xff; }
+
+    public long capacity() { return mask + 1; }
+    public long getProbes() { return probes.sum(); }
+    public long getHits() { return hits.sum(); }
+    public long getStores() { return stores.sum(); }
+
+    /**
+     * Returns the fraction of probes that found their position.
+     */
+    public double hitRate() {
+        long p = probes.sum();
+        return (p == 0) ? 0.0 : (double) hits.sum() / p;
+    }
+
+    /**
+     * Returns the fraction of slots that hold an entry, estimated from evenly spaced
+     * slots. Keys spread evenly over the table, so the sample is representative, and
+     * unlike a count kept by racing stores it can never pass 1.
+     */
+    public double occupancy() {
+        long step = Math.max(1, capacity() / OCCUPANCY_SAMPLES);
+        int sampled = 0, full = 0;
+        for (long slot = 0; slot <= mask; slot += step) {
+            sampled++;
+            if (table.get(ValueLayout.JAVA_LONG, slot * ENTRY_BYTES) != 0) full++;
+        }
+        return (double) full / sampled;
+    }
+
+    /**
+     * Empties the table and resets its counters.
+     */
+    public void clear() {
+        table.fill((byte) 0);
+        probes.reset();
+        hits.reset();
+        stores.reset();
+    }
+
+    public void close() {
+        arena.close();
+    }
+
+    public String toString() {
+        return String.format("TT[%d entries, %.1f%% full, %.1f%% hits of %d probes]",
+                capacity(), 100 * occupancy(), 100 * hitRate(), getProbes());
+    }
+}
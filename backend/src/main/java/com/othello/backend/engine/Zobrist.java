@@ -0,0 +1,58 @@
+package com.othello.backend.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys for Othello positions. A position's hash is the XOR of one random
+ * key per occupied square and colour, so a move can update it with a few XORs
+ * instead of rehashing the board.
+ */
+public final class Zobrist {
+    private static final long[] P1_KEYS = new long[64];
+    private static final long[] P2_KEYS = new long[64];
+    private static final long[] FLIP_KEYS = new long[64]; // P1_KEYS ^ P2_KEYS: turns a disc over
+    /** XOR'd into a position hash when P2 is the side to move. */
+    public static final long SIDE_TO_MOVE;
+
+    static {
+        // Fixed seed so hashes are stable across runs and can be stored in files
+        SplittableRandom rng = new SplittableRandom(0x5DEECE66DL);
+        for (int sq = 0; sq < 64; sq++) {
+            P1_KEYS[sq] = rng.nextLong();
+            P2_KEYS[sq] = rng.nextLong();
+            FLIP_KEYS[sq] = P1_KEYS[sq] ^ P2_KEYS[sq];
+        }
+        SIDE_TO_MOVE = rng.nextLong();
+    }
+
+    private Zobrist() {}
+
+    /**
+     * Returns the key for a disc of player on square.
+     */
+    public static long disc(char player, int square) {
+        return (player == OthelloBoard.P1) ? P1_KEYS[square] : (player == OthelloBoard.P2) ? P2_KEYS[square] : 0L;
+    }
+
+    /**
+     * Returns the hash change caused by turning over every disc in flips.
+     */
+    public static long flips(long flips) {
+        long h = 0;
+        while (flips != 0) {
+            h ^= FLIP_KEYS[Long.numberOfTrailingZeros(flips)];
+            flips &= flips - 1;
+        }
+        return h;
+    }
+
+    /**
+     * Computes the hash of a position from scratch.
+     */
+    public static long hash(long p1, long p2) {
+        long h = 0;
+        for (long b = p1; b != 0; b &= b - 1) h ^= P1_KEYS[Long.numberOfTrailingZeros(b)];
+        for (long b = p2; b != 0; b &= b - 1) h ^= P2_KEYS[Long.numberOfTrailingZeros(b)];
+        return h;
+    }
+}
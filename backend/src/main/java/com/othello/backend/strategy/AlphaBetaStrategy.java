@@ -0,0 +1,348 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.MoveGenerator;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.Position;
+import com.othello.backend.engine.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * The AlphaBetaStrategy class searches the game tree with negamax and alpha-beta pruning.
+ * It deepens one ply at a time until it reaches its maximum depth or runs out of
+ * its time or node budget, and then plays the best move of the last finished depth.
+ * Results are shared with other searches through the transposition table.
+ *
+ * With more than one thread it runs a Lazy SMP search: helper threads search the
+ * same root at staggered depths, and the table they share lets each one skip the
+ * work the others have already done. The table is the caller's SearchContext's, by
+ * default the JVM-wide one, and each search thread keeps its move-ordering buffers
+ * across moves, so a shared instance stays warm from one game to the next.
+ */
+public class AlphaBetaStrategy extends Strategy {
+    public static final int DEFAULT_DEPTH = 10;
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+    static final int WIN_SCORE = 10000;
+    private static final int INFINITY = 32000;
+
+    // Squares grouped from most to least promising, used to order moves cheaply
+    private static final long CORNERS = 0x8100000000000081L;
+    private static final long X_SQUARES = 0x0042000000004200L;
+    private static final long C_SQUARES = 0x4281000000008142L;
+    private static final long EDGES = 0x3c0081818181003cL;
+    private static final long CENTER = 0x00003c3c3c3c0000L;
+    private static final long[] ORDER = {CORNERS, EDGES, CENTER, ~(CORNERS | X_SQUARES | C_SQUARES | EDGES | CENTER), C_SQUARES, X_SQUARES};
+
+    // The move-ordering buffers of each pool thread, kept for every search it helps with
+    private static final ThreadLocal<int[][]> HELPER_BUFFERS = ThreadLocal.withInitial(AlphaBetaStrategy::newMoveBuffers);
+
+    private final int maxDepth;
+    private final long timeBudgetMillis;
+    private final long nodeBudget;
+    private final int threads;
+
+    /**
+     * Builds a new alpha-beta player with the default depth and time budget.
+     */
+    public AlphaBetaStrategy() {
+        this(DEFAULT_DEPTH, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * Builds a new alpha-beta player.
+     *
+     * @param maxDepth the deepest iteration to search, in plies
+     * @param timeBudgetMillis the wall-clock time one move may take
+     */
+    public AlphaBetaStrategy(int maxDepth, long timeBudgetMillis) {
+        this(maxDepth, timeBudgetMillis, Long.MAX_VALUE);
+    }
+
+    /**
+     * Builds a new alpha-beta player with a node budget as well as a time budget.
+     *
+     * @param nodeBudget the number of positions one move may visit
+     */
+    public AlphaBetaStrategy(int maxDepth, long timeBudgetMillis, long nodeBudget) {
+        this(maxDepth, timeBudgetMillis, nodeBudget, 1);
+    }
+
+    /**
+     * Builds a new alpha-beta player that searches on several threads.
+     *
+     * @param nodeBudget the number of positions each thread may visit for one move
+     * @param threads the number of threads searching each move, including the caller's
+     */
+    public AlphaBetaStrategy(int maxDepth, long timeBudgetMillis, long nodeBudget, int threads) {
+        this(maxDepth, timeBudgetMillis, nodeBudget, threads, EndgameSolver.DEFAULT_EMPTIES, true);
+    }
+
+    /**
+     * Builds a new alpha-beta player with its own endgame and opening book settings.
+     *
+     * @param endgameEmpties the empty squares at or below which the endgame solver plays, 0 for never
+     * @param useOpeningBook whether to play the opening book's move when it has one
+     */
+    public AlphaBetaStrategy(int maxDepth, long timeBudgetMillis, long nodeBudget, int threads,
+                             int endgameEmpties, boolean useOpeningBook) {
+        super(endgameEmpties, useOpeningBook);
+        this.maxDepth = Math.min(maxDepth, 60); // a game never has more than 60 moves left
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.nodeBudget = nodeBudget;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Searches position and returns the best move found within the budget.
+     * If there are no possible moves, it returns null.
+     *
+     * @return the chosen Move for the side to move, or null if no moves are possible
+     */
+    public Move getMove(Position position, SearchContext context) {
+        if (position.legalMoves() == 0) return null;
+        Move booked = bookMove(position);
+        if (booked != null) return booked;
+
+        long budget = context.timeBudgetMillis(timeBudgetMillis);
+        long start = System.nanoTime();
+        long deadline = start + budget * 1_000_000;
+        Move solved = endgameMove(position, context, start + budget * 500_000); // an exact solve may use half the budget
+        if (solved != null) return solved;
+        char player = position.getToMove();
+        TranspositionTable table = context.getTable();
+        AtomicBoolean stop = new AtomicBoolean();
+        List<SearchThreads.Helper<Search>> helpers = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            int helperIndex = i;
+            helpers.add(SearchThreads.submit(() -> {
+                Search helper = new Search(position.toBoard(), table, deadline, nodeBudget, stop, helperIndex,
+                        HELPER_BUFFERS.get());
+                helper.iterate(player, maxDepth);
+                return helper;
+            }));
+        }
+        Search main = new Search(position.toBoard(), table, deadline, nodeBudget, stop, 0, context.getMoveBuffers());
+        if (context.hasListener()) {
+            main.onIteration = s -> context.reportProgress(s.completedDepth, s.bestMove, s.bestScore, Double.NaN, s.nodes,
+                    System.nanoTime() - start);
+        }
+        main.iterate(player, maxDepth);
+        stop.set(true);
+
+        // Play the move of whichever thread finished the deepest iteration
+        Search best = main;
+        long nodes = main.nodes;
+        for (SearchThreads.Helper<Search> h : helpers) {
+            Search helper = h.join();
+            if (helper == null) continue;
+            nodes += helper.nodes;
+            if (helper.completedDepth > best.completedDepth) best = helper;
+        }
+
+        context.recordSearch(best.completedDepth, best.bestScore, nodes, 0, System.nanoTime() - start,
+                (main.nodes == 0) ? 1.0 : (double) nodes / main.nodes);
+        return new Move(BitBoard.row(best.bestMove), BitBoard.col(best.bestMove));
+    }
+
+    /**
+     * Returns a fresh set of the per-ply move buffers a search orders its moves in.
+     */
+    static int[][] newMoveBuffers() {
+        return new int[64][MoveGenerator.MAX_MOVES];
+    }
+
+    /**
+     * A static evaluation of board from side's point of view. On an 8x8 board with
+     * pattern weights loaded this is the PatternEvaluator; otherwise it counts corners,
+     * risky squares next to empty corners, mobility, and the disc count once the board
+     * is nearly full.
+     */
+    static int evaluate(OthelloBoard board, char side) {
+        char other = OthelloBoard.otherPlayer(side);
+        long own = board.getBits(side), opp = board.getBits(other);
+        PatternEvaluator patterns = PatternEvaluator.shared();
+        if (patterns != null && board.getDimension() == BitBoard.WIDTH) return patterns.evaluate(own, opp);
+        long empty = board.getEmpty();
+
+        long risky = 0; // X-squares whose corner is still open
+        if ((empty & BitBoard.bit(0, 0)) != 0) risky |= BitBoard.bit(1, 1);
+        if ((empty & BitBoard.bit(0, 7)) != 0) risky |= BitBoard.bit(1, 6);
+        if ((empty & BitBoard.bit(7, 0)) != 0) risky |= BitBoard.bit(6, 1);
+        if ((empty & BitBoard.bit(7, 7)) != 0) risky |= BitBoard.bit(6, 6);
+
+        int corners = Long.bitCount(own & CORNERS) - Long.bitCount(opp & CORNERS);
+        int xSquares = Long.bitCount(own & risky) - Long.bitCount(opp & risky);
+        int mobility = Long.bitCount(board.legalMoves(side)) - Long.bitCount(board.legalMoves(other));
+        int discs = (Long.bitCount(empty) <= 12) ? Long.bitCount(own) - Long.bitCount(opp) : 0;
+        return 30 * corners - 15 * xSquares + 5 * mobility + 2 * discs;
+    }
+
+    /**
+     * Returns the score of a finished game: a win or loss outweighs any evaluation,
+     * and the disc margin separates wins from each other.
+     */
+    static int terminalScore(OthelloBoard board, char side) {
+        int diff = board.getCount(side) - board.getCount(OthelloBoard.otherPlayer(side));
+        return (diff > 0) ? WIN_SCORE + diff : (diff < 0) ? -WIN_SCORE + diff : 0;
+    }
+
+    /**
+     * The state of one search: its own board, budget and move-ordering buffers.
+     */
+    static final class Search {
+        private final OthelloBoard board;
+        private final TranspositionTable table;
+        private final long deadline;
+        private final long nodeBudget;
+        private final AtomicBoolean stop;
+        private final int helperIndex; // 0 for the thread that plays the move
+        private final int[][] moveBuffers;
+        long nodes;
+        boolean aborted;
+        int completedDepth;
+        int bestScore;
+        int bestMove;
+        Consumer<Search> onIteration; // told about every finished iteration, if set
+
+        Search(OthelloBoard board, TranspositionTable table, long deadline, long nodeBudget, AtomicBoolean stop, int helperIndex) {
+            this(board, table, deadline, nodeBudget, stop, helperIndex, newMoveBuffers());
+        }
+
+        /**
+         * @param moveBuffers buffers from newMoveBuffers() that no other running search uses
+         */
+        Search(OthelloBoard board, TranspositionTable table, long deadline, long nodeBudget, AtomicBoolean stop,
+               int helperIndex, int[][] moveBuffers) {
+            this.moveBuffers = moveBuffers;
+            this.board = board;
+            this.table = table;
+            this.deadline = deadline;
+            this.nodeBudget = nodeBudget;
+            this.stop = stop;
+            this.helperIndex = helperIndex;
+        }
+
+        /**
+         * Runs iterative deepening up to maxDepth and returns the best square of the deepest finished iteration.
+         * Helpers start one ply deeper on every other thread and try the root moves in a rotated
+         * order, so the threads spread out over the tree instead of repeating each other.
+         */
+        int iterate(char side, int maxDepth) {
+            int[] rootMoves = moveBuffers[0];
+            int count = orderMoves(board.legalMoves(side), TranspositionTable.NO_MOVE, rootMoves);
+            bestMove = rootMoves[0];
+            if (helperIndex > 0) rotate(rootMoves, count, helperIndex % count);
+            for (int depth = 1 + (helperIndex & 1); depth <= maxDepth; depth++) {
+                int score = searchRoot(side, depth, rootMoves, count);
+                if (aborted) break;
+                bestMove = rootMoves[0];
+                bestScore = score;
+                completedDepth = depth;
+                if (onIteration != null) onIteration.accept(this);
+                if (Math.abs(score) >= WIN_SCORE) break; // the game is solved
+            }
+            return bestMove;
+        }
+
+        private static void rotate(int[] moves, int count, int by) {
+            for (int r = 0; r < by; r++) {
+                int first = moves[0];
+                System.arraycopy(moves, 1, moves, 0, count - 1);
+                moves[count - 1] = first;
+            }
+        }
+
+        /**
+         * Searches every root move and moves the best one to the front for the next iteration.
+         */
+        private int searchRoot(char side, int depth, int[] rootMoves, int count) {
+            char other = OthelloBoard.otherPlayer(side);
+            int alpha = -INFINITY;
+            for (int i = 0; i < count; i++) {
+                int sq = rootMoves[i];
+                long flips = board.makeMove(side, sq);
+                int score = -negamax(other, depth - 1, -INFINITY, -alpha);
+                board.unmakeMove(side, sq, flips);
+                if (aborted) return alpha;
+                if (score > alpha) {
+                    alpha = score;
+                    System.arraycopy(rootMoves, 0, rootMoves, 1, i);
+                    rootMoves[0] = sq;
+                }
+            }
+            table.store(board.getHash(side), alpha, depth, TranspositionTable.EXACT, rootMoves[0]);
+            return alpha;
+        }
+
+        int negamax(char side, int depth, int alpha, int beta) {
+            if ((++nodes & 1023) == 0 && (nodes >= nodeBudget || System.nanoTime() >= deadline || stop.get())) aborted = true;
+            if (aborted) return 0;
+            if (depth == 0) return evaluate(board, side);
+
+            char other = OthelloBoard.otherPlayer(side);
+            long moves = board.legalMoves(side);
+            if (moves == 0) {
+                if (board.legalMoves(other) == 0) return terminalScore(board, side);
+                return -negamax(other, depth, -beta, -alpha); // pass
+            }
+
+            long key = board.getHash(side);
+            long entry = table.probe(key);
+            int ttMove = TranspositionTable.NO_MOVE;
+            if (entry != 0) {
+                ttMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int score = TranspositionTable.score(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && score >= beta)
+                            || (bound == TranspositionTable.UPPER && score <= alpha)) return score;
+                }
+            }
+
+            int[] ordered = moveBuffers[depth];
+            int count = orderMoves(moves, ttMove, ordered);
+            int originalAlpha = alpha;
+            int best = -INFINITY, bestMove = TranspositionTable.NO_MOVE;
+            for (int i = 0; i < count; i++) {
+                int sq = ordered[i];
+                long flips = board.makeMove(side, sq);
+                int score = -negamax(other, depth - 1, -beta, -alpha);
+                board.unmakeMove(side, sq, flips);
+                if (aborted) return 0;
+                if (score > best) {
+                    best = score;
+                    bestMove = sq;
+                    if (score > alpha) alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+
+            int bound = (best <= originalAlpha) ? TranspositionTable.UPPER
+                    : (best >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, best, depth, bound, bestMove);
+            return best;
+        }
+
+        /**
+         * Writes the squares of moves into buffer, the table's move first and the rest by square class.
+         * @return the number of moves written
+         */
+        private static int orderMoves(long moves, int ttMove, int[] buffer) {
+            int count = 0;
+            if (ttMove != TranspositionTable.NO_MOVE && (moves & (1L << ttMove)) != 0) {
+                buffer[count++] = ttMove;
+                moves &= ~(1L << ttMove);
+            }
+            for (long group : ORDER) {
+                for (long m = moves & group; m != 0; m &= m - 1) buffer[count++] = Long.numberOfTrailingZeros(m);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.MoveGenerator;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.TranspositionTable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Solves endgame positions exactly: returns the move that leads to the best final
+ * disc margin under perfect play by both sides.
+ *
+ * The search is principal-variation alpha-beta on raw bitboards. Positions with many
+ * empties keep their bounds in the shared transposition table and order moves by the
+ * opponent's resulting mobility (fastest-first); the last few empties
+ * skip move generation and try squares in odd-parity quadrants first; the very last
+ * empty is scored directly from its flips.
+ */
+public final class EndgameSolver {
+    public static final int DEFAULT_EMPTIES = 16;
+    public static final long DEFAULT_SOLVE_MILLIS = 500; // for players without a search budget to take it from
+    private static final int PARITY_EMPTIES = 6;  // at or below this, order by quadrant parity
+    private static final int TABLE_EMPTIES = 10;  // at or above this, use the transposition table
+    private static final int MAX_MARGIN = 64;
+    private static final long[] QUADRANTS = {
+            0x000000000f0f0f0fL, 0x00000000f0f0f0f0L, 0x0f0f0f0f00000000L, 0xf0f0f0f000000000L};
+    private static final long CORNERS = 0x8100000000000081L;
+
+    // Totals over every solve in the JVM, for reporting
+    private static final LongAdder TOTAL_NODES = new LongAdder();
+    private static final LongAdder TOTAL_NANOS = new LongAdder();
+    private static final AtomicLong WORST_NANOS = new AtomicLong();
+
+    private final TranspositionTable table;
+    private final long deadline;
+    private boolean aborted;
+    private final int[][] squares = new int[65][MoveGenerator.MAX_MOVES];
+    private final int[][] keys = new int[65][MoveGenerator.MAX_MOVES];
+    private long nodes;
+
+    private EndgameSolver(TranspositionTable table, long deadline) {
+        this.table = table;
+        this.deadline = deadline;
+    }
+
+    /**
+     * The outcome of a solve: the best square and the final margin it guarantees.
+     */
+    public static final class Result {
+        private final int square;
+        private final int margin;
+        private final long nodes;
+        private final long nanos;
+
+        Result(int square, int margin, long nodes, long nanos) {
+            this.square = square;
+            this.margin = margin;
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        /** The square to play, or -1 if the side to move must pass. */
+        public int getSquare() { return square; }
+        /** The final disc margin for the side to move, with empty squares going to the winner. */
+        public int getMargin() { return margin; }
+        public long getNodes() { return nodes; }
+        public long getNanos() { return nanos; }
+
+        public double getNodesPerSecond() {
+            return (nanos == 0) ? 0.0 : nodes * 1e9 / nanos;
+        }
+    }
+
+    /**
+     * Solves the position on board with player to move.
+     */
+    public static Result solve(OthelloBoard board, char player) {
+        return solve(board, player, Long.MAX_VALUE);
+    }
+
+    /**
+     * Solves the position on board with player to move, giving up at the deadline.
+     *
+     * @param deadline the System.nanoTime() value at which to stop
+     * @return the result, or null if the deadline passed first
+     */
+    public static Result solve(OthelloBoard board, char player, long deadline) {
+        return solve(board.getBits(player), board.getBits(OthelloBoard.otherPlayer(player)), board.getEmpty(), deadline);
+    }
+
+    /**
+     * Solves the position with own to move, giving up at the deadline.
+     *
+     * @return the result, or null if the deadline passed first
+     */
+    public static Result solve(long own, long opp, long empty, long deadline) {
+        return solve(own, opp, empty, deadline, TranspositionTable.shared());
+    }
+
+    /**
+     * Solves the position with own to move, keeping bounds in table, giving up at the deadline.
+     *
+     * @return the result, or null if the deadline passed first
+     */
+    public static Result solve(long own, long opp, long empty, long deadline, TranspositionTable table) {
+        long start = System.nanoTime();
+        EndgameSolver solver = new EndgameSolver(table, deadline);
+        int bestSquare = -1;
+        int best;
+
+        long moves = BitBoard.moves(own, opp, empty);
+        if (moves == 0) {
+            best = solver.search(own, opp, empty, -MAX_MARGIN - 1, MAX_MARGIN + 1, false);
+        } else {
+            int alpha = -MAX_MARGIN - 1;
+            int n = Long.bitCount(empty);
+            int count = solver.orderByMobility(own, opp, empty, moves, n, TranspositionTable.NO_MOVE);
+            best = alpha;
+            for (int i = 0; i < count; i++) {
+                int sq = solver.squares[n][i];
+                long flips = BitBoard.flips(own, opp, sq);
+                long bit = 1L << sq;
+                int score = -solver.search(opp & ~flips, own | flips | bit, empty & ~bit, -MAX_MARGIN - 1, -alpha, false);
+                if (score > best) {
+                    best = score;
+                    bestSquare = sq;
+                    if (score > alpha) alpha = score;
+                }
+            }
+        }
+        if (solver.aborted) return null;
+
+        long nanos = System.nanoTime() - start;
+        TOTAL_NODES.add(solver.nodes);
+        TOTAL_NANOS.add(nanos);
+        WORST_NANOS.accumulateAndGet(nanos, Math::max);
+        return new Result(bestSquare, best, solver.nodes, nanos);
+    }
+
+    /**
+     * Returns the solver's throughput over every solve so far.
+     */
+    public static double getNodesPerSecond() {
+        long nanos = TOTAL_NANOS.sum();
+        return (nanos == 0) ? 0.0 : TOTAL_NODES.sum() * 1e9 / nanos;
+    }
+
+    /**
+     * Returns the longest single solve so far, in milliseconds.
+     */
+    public static double getWorstSolveMillis() {
+        return WORST_NANOS.get() / 1e6;
+    }
+
+    private int search(long own, long opp, long empty, int alpha, int beta, boolean passed) {
+        if ((++nodes & 4095) == 0 && System.nanoTime() >= deadline) aborted = true;
+        if (aborted) return 0;
+        int n = Long.bitCount(empty);
+        if (n == 0) return finalMargin(own, opp, 0);
+        if (n == 1) return lastEmpty(own, opp, Long.numberOfTrailingZeros(empty));
+        if (n <= PARITY_EMPTIES) return searchByParity(own, opp, empty, alpha, beta, passed);
+
+        long moves = BitBoard.moves(own, opp, empty);
+        if (moves == 0) {
+            if (passed) return finalMargin(own, opp, n);
+            return -search(opp, own, empty, -beta, -alpha, true);
+        }
+
+        long key = 0;
+        int tableMove = TranspositionTable.NO_MOVE;
+        if (n >= TABLE_EMPTIES) {
+            key = key(own, opp);
+            long entry = table.probe(key);
+            if (entry != 0 && TranspositionTable.depth(entry) == n) {
+                int score = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT) return score;
+                if (bound == TranspositionTable.LOWER && score > alpha) alpha = score;
+                if (bound == TranspositionTable.UPPER && score < beta) beta = score;
+                if (alpha >= beta) return score;
+                tableMove = TranspositionTable.move(entry);
+            }
+        }
+
+        int count = orderByMobility(own, opp, empty, moves, n, tableMove);
+        int originalAlpha = alpha;
+        int best = -MAX_MARGIN - 1, bestMove = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < count; i++) {
+            int sq = squares[n][i];
+            long flips = BitBoard.flips(own, opp, sq);
+            long bit = 1L << sq;
+            long nextOwn = opp & ~flips, nextOpp = own | flips | bit, nextEmpty = empty & ~bit;
+            int score;
+            if (i == 0) {
+                score = -search(nextOwn, nextOpp, nextEmpty, -beta, -alpha, false);
+            } else {
+                // Prove the move is no better with a null window, and search it fully only if it is
+                score = -search(nextOwn, nextOpp, nextEmpty, -alpha - 1, -alpha, false);
+                if (score > alpha && score < beta) score = -search(nextOwn, nextOpp, nextEmpty, -beta, -score, false);
+            }
+            if (aborted) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = sq;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) break;
+            }
+        }
+
+        if (n >= TABLE_EMPTIES) {
+            int bound = (best <= originalAlpha) ? TranspositionTable.UPPER
+                    : (best >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, best, n, bound, bestMove);
+        }
+        return best;
+    }
+
+    /**
+     * Hashes a position with own to move. Endgame positions are hashed straight from
+     * their bitboards, which keeps them apart from the Zobrist keys of the midgame search.
+     */
+    private static long key(long own, long opp) {
+        long h = own * 0x9e3779b97f4a7c15L;
+        h ^= Long.rotateLeft(opp * 0xc2b2ae3d27d4eb4fL, 31);
+        h ^= h >>> 29;
+        h *= 0xbf58476d1ce4e5b9L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * Searches a position with few empties without generating moves: each empty square is
+     * tried directly, those in quadrants with an odd number of empties first.
+     */
+    private int searchByParity(long own, long opp, long empty, int alpha, int beta, boolean passed) {
+        long odd = 0;
+        for (long q : QUADRANTS) {
+            if ((Long.bitCount(empty & q) & 1) != 0) odd |= q;
+        }
+
+        int best = -MAX_MARGIN - 1;
+        boolean moved = false;
+        for (int round = 0; round < 2; round++) {
+            long candidates = empty & (round == 0 ? odd : ~odd);
+            for (; candidates != 0; candidates &= candidates - 1) {
+                int sq = Long.numberOfTrailingZeros(candidates);
+                long flips = BitBoard.flips(own, opp, sq);
+                if (flips == 0) continue;
+                moved = true;
+                long bit = 1L << sq;
+                int score = -search(opp & ~flips, own | flips | bit, empty & ~bit, -beta, -alpha, false);
+                if (score > best) {
+                    best = score;
+                    if (score > alpha) alpha = score;
+                    if (alpha >= beta) return best;
+                }
+            }
+        }
+        if (moved) return best;
+        if (passed) return finalMargin(own, opp, Long.bitCount(empty));
+        return -search(opp, own, empty, -beta, -alpha, true);
+    }
+
+    /**
+     * Scores the position with a single empty square: whoever can play there does.
+     */
+    private int lastEmpty(long own, long opp, int sq) {
+        long flips = BitBoard.flips(own, opp, sq);
+        if (flips != 0) {
+            int f = Long.bitCount(flips);
+            return Long.bitCount(own) - Long.bitCount(opp) + 2 * f + 1;
+        }
+        flips = BitBoard.flips(opp, own, sq);
+        if (flips != 0) {
+            int f = Long.bitCount(flips);
+            return Long.bitCount(own) - Long.bitCount(opp) - 2 * f - 1;
+        }
+        return finalMargin(own, opp, 1);
+    }
+
+    /**
+     * Returns own's final margin, with the empty squares counted for the winner.
+     */
+    private static int finalMargin(long own, long opp, int empties) {
+        int diff = Long.bitCount(own) - Long.bitCount(opp);
+        return (diff > 0) ? diff + empties : (diff < 0) ? diff - empties : 0;
+    }
+
+    /**
+     * Writes the moves into squares[n], ordered by how few replies they leave the opponent,
+     * with corners breaking ties. The table's move, if any, goes first. Returns the number of moves.
+     */
+    private int orderByMobility(long own, long opp, long empty, long moves, int n, int tableMove) {
+        int[] sq = squares[n];
+        int[] key = keys[n];
+        int count = 0;
+        if (tableMove != TranspositionTable.NO_MOVE && (moves & (1L << tableMove)) != 0) {
+            sq[count] = tableMove;
+            key[count++] = Integer.MIN_VALUE;
+            moves &= ~(1L << tableMove);
+        }
+        for (long m = moves; m != 0; m &= m - 1) {
+            int s = Long.numberOfTrailingZeros(m);
+            long bit = 1L << s;
+            long flips = BitBoard.flips(own, opp, s);
+            int k = Long.bitCount(BitBoard.moves(opp & ~flips, own | flips | bit, empty & ~bit)) * 2
+                    - (((CORNERS & bit) != 0) ? 1 : 0);
+            // Insertion sort: the lists are short
+            int i = count++;
+            while (i > 0 && key[i - 1] > k) {
+                key[i] = key[i - 1];
+                sq[i] = sq[i - 1];
+                i--;
+            }
+            key[i] = k;
+            sq[i] = s;
+        }
+        return count;
+    }
+}
@@ -21,8 +21,8 @@ package com.othello.backend.strategy;
  */
 
 import com.othello.backend.engine.Move;
-import com.othello.backend.engine.Othello;
-import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.MoveGenerator;
+import com.othello.backend.engine.Position;
 
 /**
  * The GreedyStrategy class represents a strategy that always chooses
@@ -31,16 +31,23 @@ import com.othello.backend.engine.OthelloBoard;
  */
 
 public class GreedyStrategy extends Strategy {
+    private final long solveMillis;
 
     /**
-     * Creates a new greedy player.
-     *
-     * @param othello the Othello game the player is part of
-     * @param player the character representing the player (P1 or P2)
+     * Creates a new greedy player that plays the solver's move in the endgame.
      */
 
-    public GreedyStrategy(Othello othello, char player) {
-        super(othello, player);
+    public GreedyStrategy() {
+        this(EndgameSolver.DEFAULT_EMPTIES, EndgameSolver.DEFAULT_SOLVE_MILLIS);
+    }
+
+    /**
+     * Creates a new greedy player that plays the solver's move at or below endgameEmpties
+     * empty squares, and the greedy move when the solve takes longer than solveMillis.
+     */
+    public GreedyStrategy(int endgameEmpties, long solveMillis) {
+        super(endgameEmpties, false);
+        this.solveMillis = solveMillis;
     }
 
     /**
@@ -51,52 +58,13 @@ public class GreedyStrategy extends Strategy {
      * @return the best Move for the player, or null if none are available
      */
 
-	public Move getMove() {
-        int maxTokens = 0;
-        for (int row = 0; row < othello.othelloBoard.getDimension(); row++) {
-           for (int col = 0; col < othello.othelloBoard.getDimension(); col++) {
-                int tokens = getToken(othello, player, row, col);
-                if (maxTokens < tokens) maxTokens = tokens;
-           }
-        }
-        if  (maxTokens == 0) return null;
-        for (int row = 0; row < othello.othelloBoard.getDimension(); row++) {
-            for (int col = 0; col < othello.othelloBoard.getDimension(); col++) {
-                if (getToken(othello, player, row, col) != maxTokens) continue;
-                return new Move(row, col);
-            }
-        }
-        return null;
+	public Move getMove(Position position, SearchContext context) {
+        Move solved = endgameMove(position, context, System.nanoTime() + context.timeBudgetMillis(solveMillis) * 1_000_000);
+        if (solved != null) return solved;
+        // Moves are listed in row, then column order, so the first of a tie is the one to play
+        MoveGenerator moves = context.getMoveGenerator();
+        moves.generate(position);
+        int best = moves.mostFlips();
+        return (best < 0) ? null : moves.move(best);
 	}
-
-    /**
-     * Counts how many tokens would be flipped if the player
-     * placed a token at the given position.
-     *
-     * @param othello the Othello game being played
-     * @param player the character representing the current player
-     * @param row the row position being checked
-     * @param col the column position being checked
-     * @return the number of opponent tokens that would be flipped
-     */
-
-    public static int getToken(Othello othello, char player, int row, int col) {
-        int maxTokens = 0;
-        if (othello.othelloBoard.get(row, col) != OthelloBoard.EMPTY) return maxTokens;
-        for (int[] dir : OthelloBoard.directions) {
-            int dirTokens = 0;
-            char first = othello.othelloBoard.get(row + dir[0], col + dir[1]);
-            if (first != OthelloBoard.otherPlayer(player)) continue;
-            int dx = dir[0]; int dy = dir[1];
-            while (first == OthelloBoard.otherPlayer(player)){
-                dirTokens++;
-                dx += dir[0];
-                dy += dir[1];
-                first = othello.othelloBoard.get(row + dx, col + dy);
-            }
-         if (first == OthelloBoard.EMPTY) continue;
-         if (maxTokens < dirTokens) maxTokens = dirTokens;
-        }
-        return maxTokens;
-    }
 }
@@ -4,8 +4,8 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 
-import com.othello.backend.engine.Othello;
 import com.othello.backend.engine.Move;
+import com.othello.backend.engine.Position;
 /**
  * The HumanStrategy class represents a human strategy in the Othello game.
  * It lets the player enter their move by typing a row and column.
@@ -17,13 +17,10 @@ public class HumanStrategy extends Strategy {
 	private static BufferedReader stdin = new BufferedReader(new InputStreamReader(System.in));
 
     /**
-     * Builds a new human player in the given Othello game.
-     *
-     * @param othello the current Othello game
-     * @param player the character representing this player (P1 or P2)
+     * Builds a new human player.
      */
-	public HumanStrategy(Othello othello, char player) {
-		super(othello, player);
+	public HumanStrategy() {
+		super(0, false);
 	}
 
     /**
@@ -31,7 +28,7 @@ public class HumanStrategy extends Strategy {
      *
      * @return the Move chosen by the player
      */
-	public Move getMove() {
+	public Move getMove(Position position, SearchContext context) {
 		
 		int row = getMove("row: ");
 		int col = getMove("col: ");
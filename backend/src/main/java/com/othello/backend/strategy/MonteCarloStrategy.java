@@ -0,0 +1,247 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The MonteCarloStrategy class chooses moves with Monte Carlo Tree Search (UCT).
+ * Each iteration walks down the tree by the UCB1 rule, adds one new position,
+ * finishes the game with a random playout and credits the result back up the path.
+ * The move visited most often is played. Playouts run on raw bitboards (see Playout)
+ * and allocate nothing; only the tree itself grows.
+ *
+ * With more than one thread the search is root-parallel: each thread grows its own
+ * tree from the current position and the root visit counts are summed before choosing.
+ * Random numbers come from the caller's SearchContext, split once per helper thread.
+ */
+public class MonteCarloStrategy extends Strategy {
+    public static final int DEFAULT_ITERATIONS = 200_000;
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+    private static final double EXPLORATION = Math.sqrt(2);
+    static final int PASS = 64;
+    private static final long PROGRESS_INTERVAL_NANOS = 250_000_000;
+
+    private final int iterations;
+    private final long timeBudgetMillis;
+    private final int threads;
+
+    /**
+     * Builds a new Monte Carlo player with the default iteration count and time budget.
+     */
+    public MonteCarloStrategy() {
+        this(DEFAULT_ITERATIONS, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * Builds a new Monte Carlo player that stops at whichever limit it reaches first.
+     *
+     * @param iterations the number of playouts to run for one move
+     * @param timeBudgetMillis the wall-clock time one move may take
+     */
+    public MonteCarloStrategy(int iterations, long timeBudgetMillis) {
+        this(iterations, timeBudgetMillis, 1);
+    }
+
+    /**
+     * Builds a new Monte Carlo player that searches on several threads.
+     *
+     * @param iterations the number of playouts to run for one move, split across the threads
+     * @param threads the number of threads searching each move, including the caller's
+     */
+    public MonteCarloStrategy(int iterations, long timeBudgetMillis, int threads) {
+        this(iterations, timeBudgetMillis, threads, EndgameSolver.DEFAULT_EMPTIES, true);
+    }
+
+    /**
+     * Builds a new Monte Carlo player with its own endgame and opening book settings.
+     *
+     * @param endgameEmpties the empty squares at or below which the endgame solver plays, 0 for never
+     * @param useOpeningBook whether to play the opening book's move when it has one
+     */
+    public MonteCarloStrategy(int iterations, long timeBudgetMillis, int threads, int endgameEmpties, boolean useOpeningBook) {
+        super(endgameEmpties, useOpeningBook);
+        this.iterations = iterations;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Runs the search from position and returns the most visited move.
+     * If there are no possible moves, it returns null.
+     *
+     * @return the chosen Move for the side to move, or null if no moves are possible
+     */
+    public Move getMove(Position position, SearchContext context) {
+        if (position.legalMoves() == 0) return null;
+        Move booked = bookMove(position);
+        if (booked != null) return booked;
+
+        long budget = context.timeBudgetMillis(timeBudgetMillis);
+        long start = System.nanoTime();
+        long deadline = start + budget * 1_000_000;
+        Move solved = endgameMove(position, context, start + budget * 500_000); // an exact solve may use half the budget
+        if (solved != null) return solved;
+        SplittableRandom rng = context.getRandom();
+        long own = position.getOwn(), opp = position.getOpp();
+        long valid = own | opp | position.getEmpty();
+        int share = Math.max(1, iterations / threads);
+
+        List<SearchThreads.Helper<Node>> helpers = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            Node root = new Node(null, PASS, own, opp, valid);
+            SplittableRandom helperRng = rng.split();
+            helpers.add(SearchThreads.submit(() -> {
+                search(root, share, deadline, helperRng);
+                return root;
+            }));
+        }
+        Node main = new Node(null, PASS, own, opp, valid);
+        if (context.hasListener()) searchReporting(main, share, start, deadline, rng, context);
+        else search(main, share, deadline, rng);
+
+        // Sum the root visit counts of every tree that ran
+        int[] visits = new int[64];
+        long playouts = main.visits;
+        main.addRootVisits(visits);
+        for (SearchThreads.Helper<Node> h : helpers) {
+            Node root = h.join();
+            if (root == null) continue;
+            playouts += root.visits;
+            root.addRootVisits(visits);
+        }
+        int best = main.mostVisited().square;
+        for (int sq = 0; sq < 64; sq++) {
+            if (visits[sq] > visits[best]) best = sq;
+        }
+
+        context.recordSearch(0, 0, 0, playouts, System.nanoTime() - start, (double) playouts / main.visits);
+        return new Move(BitBoard.row(best), BitBoard.col(best));
+    }
+
+    /**
+     * Like search(), but stops every PROGRESS_INTERVAL_NANOS to report the most visited
+     * move so far to the context's listener. The tree carries over, so the result is the same.
+     */
+    private static void searchReporting(Node root, int iterations, long start, long deadline, SplittableRandom rng,
+                                        SearchContext context) {
+        long done = 0;
+        while (done == 0 || (done < iterations && System.nanoTime() < deadline)) {
+            long sliceEnd = Math.min(deadline, System.nanoTime() + PROGRESS_INTERVAL_NANOS);
+            done += search(root, (int) (iterations - done), sliceEnd, rng);
+            Node best = root.mostVisited();
+            context.reportProgress(0, best.square, 0, best.wins / best.visits, root.visits, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs UCT iterations on root until the iteration count or the deadline is reached.
+     * At least one iteration always runs, so the root has a child to play.
+     * @return the number of playouts run
+     */
+    static long search(Node root, int iterations, long deadline, SplittableRandom rng) {
+        long n = 0;
+        while (n == 0 || (n < iterations && ((n & 63) != 0 || System.nanoTime() < deadline))) {
+            Node node = root;
+            while (node.isExpanded() && node.childCount > 0) node = node.select();
+            if (!node.isExpanded()) node = node.expand(rng);
+
+            int diff = Playout.play(node.own, node.opp, node.valid & ~(node.own | node.opp), rng);
+            // Reward of the side that moved into the leaf: it is the opponent of the side to move there
+            double reward = (diff < 0) ? 1.0 : (diff == 0) ? 0.5 : 0.0;
+            for (Node up = node; up != null; up = up.parent) {
+                up.visits++;
+                up.wins += reward;
+                reward = 1.0 - reward;
+            }
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * A position in the search tree, seen from the side to move.
+     */
+    static final class Node {
+        final Node parent;
+        final int square; // move that led here, or PASS
+        final long own, opp, valid;
+        long untried;     // legal moves not yet expanded
+        Node[] children;
+        int childCount;
+        int visits;
+        double wins;      // credited to the side that moved into this node
+
+        Node(Node parent, int square, long own, long opp, long valid) {
+            this.parent = parent;
+            this.square = square;
+            this.own = own;
+            this.opp = opp;
+            this.valid = valid;
+        }
+
+        boolean isExpanded() {
+            return children != null && untried == 0;
+        }
+
+        /**
+         * Adds one untried child and returns it, or returns this node if the game is over here.
+         */
+        Node expand(SplittableRandom rng) {
+            if (children == null) {
+                long empty = valid & ~(own | opp);
+                untried = BitBoard.moves(own, opp, empty);
+                if (untried == 0) {
+                    if (BitBoard.moves(opp, own, empty) == 0) {
+                        children = new Node[0]; // terminal
+                        return this;
+                    }
+                    children = new Node[] {new Node(this, PASS, opp, own, valid)};
+                    childCount = 1;
+                    return children[0];
+                }
+                children = new Node[Long.bitCount(untried)];
+            }
+            int sq = Playout.nthSquare(untried, rng.nextInt(Long.bitCount(untried)));
+            untried &= ~(1L << sq);
+            long flips = BitBoard.flips(own, opp, sq);
+            Node child = new Node(this, sq, opp & ~flips, own | flips | (1L << sq), valid);
+            children[childCount++] = child;
+            return child;
+        }
+
+        /**
+         * Returns the child with the highest UCB1 score.
+         */
+        Node select() {
+            double logVisits = Math.log(visits);
+            Node best = children[0];
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < childCount; i++) {
+                Node c = children[i];
+                double score = c.wins / c.visits + EXPLORATION * Math.sqrt(logVisits / c.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        void addRootVisits(int[] visits) {
+            for (int i = 0; i < childCount; i++) visits[children[i].square] += children[i].visits;
+        }
+
+        Node mostVisited() {
+            Node best = children[0];
+            for (int i = 1; i < childCount; i++) {
+                if (children[i].visits > best.visits) best = children[i];
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.OpeningBook;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.Symmetry;
+import com.othello.backend.engine.TranspositionTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Builds an opening book offline from deep alpha-beta searches.
+ *
+ * Starting from the initial position, every move of every book position is scored by a
+ * fixed-depth search. Only moves scoring within a margin of the best are followed to
+ * grow the book, so it covers the lines good players actually reach instead of the
+ * whole opening tree. Symmetric copies of a position are searched once.
+ *
+ * Usage: OpeningBookBuilder output-file [plies] [depth] [margin]
+ */
+public final class OpeningBookBuilder {
+    public static final int DEFAULT_PLIES = 8;
+    public static final int DEFAULT_DEPTH = 10;
+    public static final int DEFAULT_MARGIN = 10;
+    private static final int WINDOW = AlphaBetaStrategy.WIN_SCORE + 100; // wider than any score
+
+    private final int plies;
+    private final int depth;
+    private final int margin;
+    private final TranspositionTable table = TranspositionTable.shared();
+
+    /**
+     * @param plies how many moves from the start the book reaches
+     * @param depth the search depth used to score each move
+     * @param margin how far below the best score a move may be and still be followed
+     */
+    public OpeningBookBuilder(int plies, int depth, int margin) {
+        this.plies = plies;
+        this.depth = depth;
+        this.margin = margin;
+    }
+
+    /**
+     * Scores the book positions breadth-first and returns their entries.
+     */
+    public List<OpeningBook.Entry> build() {
+        List<OpeningBook.Entry> entries = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        ArrayDeque<Pending> queue = new ArrayDeque<>();
+        queue.add(new Pending(new OthelloBoard(8), OthelloBoard.P1, 0));
+
+        while (!queue.isEmpty()) {
+            Pending next = queue.poll();
+            OthelloBoard board = next.board;
+            char side = next.side;
+            int ply = next.ply;
+            char other = OthelloBoard.otherPlayer(side);
+
+            long moves = board.legalMoves(side);
+            if (moves == 0) {
+                // A pass is not a book move; carry on from the same position with the other side
+                if (board.legalMoves(other) != 0) queue.add(new Pending(board, other, ply));
+                continue;
+            }
+            long own = board.getBits(side), opp = board.getBits(other);
+            Symmetry.Canonical canonical = Symmetry.canonicalize(own, opp);
+            long key = canonical.hash();
+            if (!seen.add(key)) continue;
+
+            int count = Long.bitCount(moves);
+            int[] squares = new int[count];
+            int[] scores = new int[count];
+            int best = -WINDOW;
+            for (int i = 0; moves != 0; moves &= moves - 1, i++) {
+                squares[i] = Long.numberOfTrailingZeros(moves);
+                scores[i] = score(board, side, squares[i]);
+                best = Math.max(best, scores[i]);
+                entries.add(new OpeningBook.Entry(key, canonical.toCanonical(squares[i]), depth, scores[i]));
+            }
+
+            if (ply + 1 >= plies) continue;
+            for (int i = 0; i < count; i++) {
+                if (scores[i] < best - margin) continue;
+                OthelloBoard child = new OthelloBoard(board);
+                child.makeMove(side, squares[i]);
+                queue.add(new Pending(child, other, ply + 1));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * A position waiting to be scored, with the side to move and its distance from the start.
+     */
+    private static final class Pending {
+        final OthelloBoard board;
+        final char side;
+        final int ply;
+
+        Pending(OthelloBoard board, char side, int ply) {
+            this.board = board;
+            this.side = side;
+            this.ply = ply;
+        }
+    }
+
+    /**
+     * Returns the score of side playing square, from side's point of view.
+     */
+    private int score(OthelloBoard board, char side, int square) {
+        OthelloBoard child = new OthelloBoard(board);
+        child.makeMove(side, square);
+        AlphaBetaStrategy.Search search = new AlphaBetaStrategy.Search(
+                child, table, Long.MAX_VALUE, Long.MAX_VALUE, new AtomicBoolean(), 0);
+        int score = 0;
+        // Deepen one ply at a time so the table orders the moves of the final search
+        for (int d = 0; d < depth; d++) {
+            score = -search.negamax(OthelloBoard.otherPlayer(side), d, -WINDOW, WINDOW);
+        }
+        return score;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: OpeningBookBuilder output-file [plies] [depth] [margin]");
+            return;
+        }
+        int plies = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+        int depth = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+        int margin = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_MARGIN;
+
+        long start = System.nanoTime();
+        List<OpeningBook.Entry> entries = new OpeningBookBuilder(plies, depth, margin).build();
+        OpeningBook.write(Path.of(args[0]), entries);
+        System.out.printf("Wrote %d moves to %s in %.1fs%n", entries.size(), args[0], (System.nanoTime() - start) / 1e9);
+    }
+}
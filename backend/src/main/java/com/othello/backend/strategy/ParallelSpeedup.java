@@ -0,0 +1,104 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.Position;
+import com.othello.backend.engine.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures how much faster the parallel searches are than the same search on one thread.
+ *
+ * Alpha-beta is timed to a fixed depth on the same positions with one thread and with
+ * several, and the speedup is the ratio of the total times. The shared transposition
+ * table is cleared before every search so neither run profits from the other's entries.
+ * Monte Carlo is compared by playouts per second over the same time budget. The opening
+ * book and the endgame solver are off, so every move is an actual search.
+ *
+ * Usage: ParallelSpeedup [threads] [positions] [depth] [mcts-ms] [seed]
+ */
+public final class ParallelSpeedup {
+    public static final int DEFAULT_POSITIONS = 20;
+    public static final int DEFAULT_DEPTH = 9;
+    public static final long DEFAULT_MCTS_MILLIS = 500;
+    private static final int OPENING_PLIES = 16;
+    private static final long NO_TIME_LIMIT_MILLIS = 3_600_000;
+
+    private ParallelSpeedup() {
+    }
+
+    /**
+     * Returns positions reached by random moves from the start, all with a move to play.
+     */
+    static List<Position> positions(int count, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        List<Position> positions = new ArrayList<>(count);
+        while (positions.size() < count) {
+            Othello othello = new Othello();
+            for (int ply = 0; ply < OPENING_PLIES && !othello.isGameOver(); ply++) {
+                char turn = othello.getWhosTurn();
+                long moves = othello.getBoard().legalMoves(turn);
+                int square = Playout.nthSquare(moves, rng.nextInt(Long.bitCount(moves)));
+                othello.move(turn, new Move(BitBoard.row(square), BitBoard.col(square)));
+            }
+            Position position = Position.of(othello);
+            if (position.legalMoves() != 0) positions.add(position);
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the wall-clock nanoseconds alpha-beta takes to reach depth on every position.
+     */
+    static long timeToDepth(List<Position> positions, int depth, int threads) {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(depth, NO_TIME_LIMIT_MILLIS, Long.MAX_VALUE, threads, 0, false);
+        SearchContext context = new SearchContext(1);
+        long total = 0;
+        for (Position position : positions) {
+            TranspositionTable.shared().clear();
+            long start = System.nanoTime();
+            strategy.getMove(position, context);
+            total += System.nanoTime() - start;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the Monte Carlo playouts per second over every position.
+     */
+    static double playoutRate(List<Position> positions, long millis, int threads) {
+        MonteCarloStrategy strategy = new MonteCarloStrategy(Integer.MAX_VALUE, millis, threads, 0, false);
+        SearchContext context = new SearchContext(1);
+        long playouts = 0, nanos = 0;
+        for (Position position : positions) {
+            strategy.getMove(position, context);
+            playouts += context.getPlayouts();
+            nanos += context.getElapsedMillis() * 1_000_000;
+        }
+        return (nanos == 0) ? 0.0 : playouts * 1e9 / nanos;
+    }
+
+    public static void main(String[] args) {
+        int threads = (args.length > 0) ? Integer.parseInt(args[0]) : SearchThreads.size();
+        int count = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_POSITIONS;
+        int depth = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+        long mctsMillis = (args.length > 3) ? Long.parseLong(args[3]) : DEFAULT_MCTS_MILLIS;
+        long seed = (args.length > 4) ? Long.parseLong(args[4]) : 1;
+        List<Position> positions = positions(count, seed);
+
+        timeToDepth(positions.subList(0, 1), depth, threads); // warm up the JIT and the pool
+        long single = timeToDepth(positions, depth, 1);
+        long parallel = timeToDepth(positions, depth, threads);
+        System.out.printf("alpha-beta depth %d, %d positions: 1 thread %.0f ms, %d threads %.0f ms, speedup %.2f%n",
+                depth, count, single / 1e6, threads, parallel / 1e6, (parallel == 0) ? 0.0 : (double) single / parallel);
+
+        double singleRate = playoutRate(positions, mctsMillis, 1);
+        double parallelRate = playoutRate(positions, mctsMillis, threads);
+        System.out.printf("monte carlo %d ms, %d positions: 1 thread %.0f playouts/s, %d threads %.0f playouts/s, speedup %.2f%n",
+                mctsMillis, count, singleRate, threads, parallelRate, (singleRate == 0) ? 0.0 : parallelRate / singleRate);
+    }
+}
@@ -0,0 +1,190 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Symmetry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A static evaluation built from pattern tables, with a separate set of weights for
+ * each phase of the game.
+ *
+ * Each pattern is a fixed group of squares: the edge with its two X-squares, the 3x3
+ * and 2x5 corner regions, the rows next to the edge and the diagonals. The discs on a
+ * pattern's squares form a base-3 number that indexes its table directly, so scoring a
+ * pattern is one lookup. Every pattern is read in all eight board orientations, which
+ * lets one table cover every corner and edge. Mobility, frontier and parity terms are
+ * added on top.
+ *
+ * Weights are learned offline by PatternTrainer and stored in a binary file: a 16-byte
+ * header (magic, version, phases, weights per phase) followed by the weights as
+ * big-endian shorts, in units of 1/UNITS_PER_DISC of a disc.
+ */
+public final class PatternEvaluator {
+    public static final int PHASES = 10;
+    public static final int UNITS_PER_DISC = 16;
+    static final int MAGIC = 0x4f504556; // "OPEV"
+    static final int VERSION = 1;
+
+    // Squares of each pattern in one orientation; the others come from Symmetry
+    static final long[] PATTERNS = {
+            0x00000000000042ffL, // edge and both X-squares
+            0x0000000000070707L, // 3x3 corner
+            0x0000000000001f1fL, // 2x5 corner
+            0x000000000000ff00L, // second row
+            0x0000000000ff0000L, // third row
+            0x00000000ff000000L, // fourth row
+            0x8040201008040201L, // long diagonal
+            0x0080402010080402L, // diagonals of 7 to 4 squares
+            0x0000804020100804L,
+            0x0000008040201008L,
+            0x0000000080402010L,
+    };
+    static final int SCALARS = 3; // mobility, frontier and parity, stored first in each phase
+    static final int[] OFFSETS = new int[PATTERNS.length];
+    static final int PHASE_SIZE;
+    /** Table lookups in one evaluation. */
+    static final int FEATURES = Symmetry.COUNT * PATTERNS.length;
+    private static final int[] TERNARY = new int[1 << 10]; // binary digits read as base-3 digits
+
+    static {
+        int offset = SCALARS;
+        for (int k = 0; k < PATTERNS.length; k++) {
+            OFFSETS[k] = offset;
+            offset += (int) Math.pow(3, Long.bitCount(PATTERNS[k]));
+        }
+        PHASE_SIZE = offset;
+        for (int b = 0; b < TERNARY.length; b++) {
+            int value = 0;
+            for (int i = 9; i >= 0; i--) value = value * 3 + ((b >>> i) & 1);
+            TERNARY[b] = value;
+        }
+    }
+
+    private static volatile PatternEvaluator shared;
+
+    private final short[] weights; // PHASES blocks of PHASE_SIZE
+
+    PatternEvaluator(short[] weights) {
+        if (weights.length != PHASES * PHASE_SIZE) {
+            throw new IllegalArgumentException("Expected " + PHASES * PHASE_SIZE + " weights, got " + weights.length);
+        }
+        this.weights = weights;
+    }
+
+    /**
+     * Returns the evaluator installed for every search, or null if none is loaded.
+     */
+    public static PatternEvaluator shared() {
+        return shared;
+    }
+
+    public static void setShared(PatternEvaluator evaluator) {
+        shared = evaluator;
+    }
+
+    /**
+     * Reads a weights file written by write().
+     *
+     * @throws IOException if the file cannot be read or does not match these patterns
+     */
+    public static PatternEvaluator load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {}
+            buffer.flip();
+            if (buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a pattern weights file: " + path);
+            }
+            int version = buffer.getInt(), phases = buffer.getInt(), phaseSize = buffer.getInt();
+            if (version != VERSION || phases != PHASES || phaseSize != PHASE_SIZE) {
+                throw new IOException("Pattern weights file " + path + " does not match this evaluator");
+            }
+            if (buffer.remaining() != PHASES * PHASE_SIZE * 2) {
+                throw new IOException("Truncated pattern weights file: " + path);
+            }
+            short[] weights = new short[PHASES * PHASE_SIZE];
+            buffer.asShortBuffer().get(weights);
+            return new PatternEvaluator(weights);
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + weights.length * 2);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(PHASES).putInt(PHASE_SIZE);
+        buffer.asShortBuffer().put(weights);
+        buffer.position(buffer.capacity()).flip();
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    /**
+     * Scores the position for own, the side to move, in 1/UNITS_PER_DISC of a disc.
+     */
+    public int evaluate(long own, long opp) {
+        int base = phase(own, opp) * PHASE_SIZE;
+        long empty = ~(own | opp);
+        int score = weights[base] * mobility(own, opp, empty)
+                + weights[base + 1] * frontier(own, opp, empty)
+                + weights[base + 2] * parity(empty);
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            long o = Symmetry.transform(own, t), p = Symmetry.transform(opp, t);
+            for (int k = 0; k < PATTERNS.length; k++) score += weights[base + OFFSETS[k] + index(o, p, k)];
+        }
+        return score;
+    }
+
+    /**
+     * Returns the phase of a position, from 0 at the start to PHASES - 1 near the end.
+     */
+    static int phase(long own, long opp) {
+        return Math.min(PHASES - 1, (Long.bitCount(own | opp) - 4) * PHASES / 60);
+    }
+
+    /**
+     * Writes the weight indices, within a phase, of every table lookup for the position
+     * into indices, which must hold FEATURES entries.
+     */
+    static void features(long own, long opp, int[] indices) {
+        int i = 0;
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            long o = Symmetry.transform(own, t), p = Symmetry.transform(opp, t);
+            for (int k = 0; k < PATTERNS.length; k++) indices[i++] = OFFSETS[k] + index(o, p, k);
+        }
+    }
+
+    /**
+     * Writes the mobility, frontier and parity terms of the position into values.
+     */
+    static void scalars(long own, long opp, int[] values) {
+        long empty = ~(own | opp);
+        values[0] = mobility(own, opp, empty);
+        values[1] = frontier(own, opp, empty);
+        values[2] = parity(empty);
+    }
+
+    private static int index(long own, long opp, int k) {
+        return TERNARY[(int) Long.compress(own, PATTERNS[k])] + 2 * TERNARY[(int) Long.compress(opp, PATTERNS[k])];
+    }
+
+    private static int mobility(long own, long opp, long empty) {
+        return Long.bitCount(BitBoard.moves(own, opp, empty)) - Long.bitCount(BitBoard.moves(opp, own, empty));
+    }
+
+    // Discs next to an empty square are the ones the opponent can still flip
+    private static int frontier(long own, long opp, long empty) {
+        long edge = BitBoard.neighbours(empty);
+        return Long.bitCount(opp & edge) - Long.bitCount(own & edge);
+    }
+
+    // The side to move gets the last move in each region when the empty count is odd
+    private static int parity(long empty) {
+        return ((Long.bitCount(empty) & 1) != 0) ? 1 : -1;
+    }
+}
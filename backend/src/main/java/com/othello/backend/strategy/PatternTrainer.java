@@ -0,0 +1,170 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.TranspositionTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fits PatternEvaluator weights offline from self-play.
+ *
+ * Games open with a few random moves for variety, continue with a shallow alpha-beta
+ * search and are finished by the exact endgame solver. Every position is labelled with
+ * the final disc margin for its side to move, and the weights are fitted to those labels
+ * by normalized stochastic gradient descent. Passing in an earlier weights file makes
+ * the self-play search use it, so each round trains on stronger games.
+ *
+ * Usage: PatternTrainer output-file [games] [seed] [previous-weights-file]
+ */
+public final class PatternTrainer {
+    public static final int DEFAULT_GAMES = 20_000;
+    private static final int RANDOM_OPENING = 8;     // random moves at the start of each game
+    private static final int SEARCH_DEPTH = 3;
+    private static final int SOLVE_EMPTIES = 14;
+    private static final int EPOCHS = 8;
+    private static final float LEARNING_RATE = 0.3f; // fraction of each error corrected per position
+
+    private final SplittableRandom rng;
+    private final TranspositionTable table = TranspositionTable.shared();
+    private long[] own = new long[1 << 16];
+    private long[] opp = new long[1 << 16];
+    private byte[] margins = new byte[1 << 16];
+    private int size;
+
+    public PatternTrainer(long seed) {
+        this.rng = new SplittableRandom(seed);
+    }
+
+    /**
+     * Plays the given number of self-play games and keeps every position they reach.
+     */
+    public void generate(int games) {
+        for (int g = 0; g < games; g++) {
+            OthelloBoard board = new OthelloBoard(8);
+            char side = OthelloBoard.P1;
+            int first = size;
+            for (int ply = 0; ; ply++) {
+                long moves = board.legalMoves(side);
+                char other = OthelloBoard.otherPlayer(side);
+                if (moves == 0) {
+                    if (board.legalMoves(other) == 0) break;
+                    side = other;
+                    continue;
+                }
+                // Stored as P1's view for now; flipped to the mover's view once the result is known
+                add(board.getBits(side), board.getBits(other), (side == OthelloBoard.P1) ? 1 : -1);
+                board.makeMove(side, chooseMove(board, side, moves, ply));
+                side = other;
+            }
+            int margin = board.getCount(OthelloBoard.P1) - board.getCount(OthelloBoard.P2);
+            for (int i = first; i < size; i++) margins[i] = (byte) (margins[i] * margin);
+        }
+    }
+
+    private int chooseMove(OthelloBoard board, char side, long moves, int ply) {
+        if (ply < RANDOM_OPENING) {
+            return Playout.nthSquare(moves, rng.nextInt(Long.bitCount(moves)));
+        }
+        if (board.getCount(OthelloBoard.EMPTY) <= SOLVE_EMPTIES) {
+            return EndgameSolver.solve(board, side).getSquare();
+        }
+        AlphaBetaStrategy.Search search = new AlphaBetaStrategy.Search(
+                new OthelloBoard(board), table, Long.MAX_VALUE, Long.MAX_VALUE, new AtomicBoolean(), 0);
+        return search.iterate(side, SEARCH_DEPTH);
+    }
+
+    private void add(long ownBits, long oppBits, int sign) {
+        if (size == own.length) {
+            own = Arrays.copyOf(own, size * 2);
+            opp = Arrays.copyOf(opp, size * 2);
+            margins = Arrays.copyOf(margins, size * 2);
+        }
+        own[size] = ownBits;
+        opp[size] = oppBits;
+        margins[size++] = (byte) sign;
+    }
+
+    /**
+     * Fits weights to the positions generated so far and returns the evaluator.
+     */
+    public PatternEvaluator fit() {
+        int phaseSize = PatternEvaluator.PHASE_SIZE;
+        float[] weights = new float[PatternEvaluator.PHASES * phaseSize];
+        int[] features = new int[PatternEvaluator.FEATURES];
+        int[] scalars = new int[PatternEvaluator.SCALARS];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            shuffle(order);
+            double squaredError = 0;
+            for (int i : order) {
+                int base = PatternEvaluator.phase(own[i], opp[i]) * phaseSize;
+                PatternEvaluator.features(own[i], opp[i], features);
+                PatternEvaluator.scalars(own[i], opp[i], scalars);
+
+                float predicted = 0;
+                for (int s = 0; s < scalars.length; s++) predicted += weights[base + s] * scalars[s];
+                for (int f : features) predicted += weights[base + f];
+                float error = margins[i] * PatternEvaluator.UNITS_PER_DISC - predicted;
+                squaredError += (double) error * error;
+
+                // Symmetric positions hit some entries more than once, so scale the step
+                // by the squared length of the whole feature vector
+                Arrays.sort(features);
+                int norm = 0;
+                for (int j = 0, run = 1; j < features.length; j++, run++) {
+                    if (j + 1 == features.length || features[j + 1] != features[j]) {
+                        norm += run * run;
+                        run = 0;
+                    }
+                }
+                for (int x : scalars) norm += x * x;
+                float step = LEARNING_RATE * error / norm;
+                for (int s = 0; s < scalars.length; s++) weights[base + s] += step * scalars[s];
+                for (int f : features) weights[base + f] += step;
+            }
+            System.out.printf("Epoch %d: RMS error %.2f discs%n",
+                    epoch + 1, Math.sqrt(squaredError / size) / PatternEvaluator.UNITS_PER_DISC);
+        }
+
+        short[] quantized = new short[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            quantized[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(weights[i])));
+        }
+        return new PatternEvaluator(quantized);
+    }
+
+    private void shuffle(int[] a) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int t = a[i]; a[i] = a[j]; a[j] = t;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: PatternTrainer output-file [games] [seed] [previous-weights-file]");
+            return;
+        }
+        int games = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : 1;
+        if (args.length > 3) PatternEvaluator.setShared(PatternEvaluator.load(Path.of(args[3])));
+
+        long start = System.nanoTime();
+        PatternTrainer trainer = new PatternTrainer(seed);
+        trainer.generate(games);
+        System.out.printf("Generated %d positions from %d games in %.1fs%n",
+                trainer.size(), games, (System.nanoTime() - start) / 1e9);
+        trainer.fit().write(Path.of(args[0]));
+        System.out.printf("Wrote %s in %.1fs%n", args[0], (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,56 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.Position;
+
+/**
+ * One side of one game: a shared Strategy together with the game, the colour it plays
+ * and the SearchContext it keeps from move to move.
+ */
+public class Player {
+    private final Othello othello;
+    private final char player;
+    private final Strategy strategy;
+    private final SearchContext context;
+
+    /**
+     * @param othello the game being played
+     * @param player the character representing this player (P1 or P2)
+     * @param strategy the strategy that chooses this player's moves, possibly shared with other games
+     * @param context this player's own randomness, budget and buffers
+     */
+    public Player(Othello othello, char player, Strategy strategy, SearchContext context) {
+        this.othello = othello;
+        this.player = player;
+        this.strategy = strategy;
+        this.context = context;
+    }
+
+    /**
+     * Asks the strategy for this player's move in the game's current position.
+     *
+     * @return the chosen Move, or null if this player has no move
+     */
+    public Move getMove() {
+        return getMove(new Position(othello.getBoard(), player));
+    }
+
+    /**
+     * Asks the strategy for this player's move in position, a snapshot of the game
+     * taken earlier, so the search does not read the live game while it changes.
+     */
+    public Move getMove(Position position) {
+        return strategy.getMove(position, context);
+    }
+
+    /**
+     * Return the character of this player.
+     */
+    public char getPlayer() {
+        return player;
+    }
+
+    public Strategy getStrategy() { return strategy; }
+    public SearchContext getContext() { return context; }
+}
@@ -0,0 +1,53 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.BitBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random game simulation on raw bitboards. A playout works entirely on local
+ * longs, so simulating a game allocates nothing no matter how many moves it takes.
+ */
+public final class Playout {
+
+    private Playout() {}
+
+    /**
+     * Plays uniformly random moves, passing when forced, until neither side can move.
+     *
+     * @param own the discs of the side to move
+     * @param opp the discs of the other side
+     * @param empty the empty squares of the board
+     * @param rng the source of randomness
+     * @return own's final disc count minus opp's
+     */
+    public static int play(long own, long opp, long empty, SplittableRandom rng) {
+        long valid = own | opp | empty;
+        boolean swapped = false, passed = false;
+        while (true) {
+            long moves = BitBoard.moves(own, opp, valid & ~(own | opp));
+            if (moves == 0) {
+                if (passed) break;
+                passed = true;
+            } else {
+                passed = false;
+                int sq = nthSquare(moves, rng.nextInt(Long.bitCount(moves)));
+                long flips = BitBoard.flips(own, opp, sq);
+                own |= flips | (1L << sq);
+                opp &= ~flips;
+            }
+            long t = own; own = opp; opp = t;
+            swapped = !swapped;
+        }
+        int diff = Long.bitCount(own) - Long.bitCount(opp);
+        return swapped ? -diff : diff;
+    }
+
+    /**
+     * Returns the square of the n-th set bit of moves, counting from the lowest.
+     */
+    static int nthSquare(long moves, int n) {
+        for (int i = 0; i < n; i++) moves &= moves - 1;
+        return Long.numberOfTrailingZeros(moves);
+    }
+}
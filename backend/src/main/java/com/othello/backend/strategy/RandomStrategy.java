@@ -1,51 +1,47 @@
 package com.othello.backend.strategy;
 
-import java.util.ArrayList;
-import java.util.Random;
-
-import com.othello.backend.engine.Othello;
 import com.othello.backend.engine.Move;
-import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.MoveGenerator;
+import com.othello.backend.engine.Position;
 /**
  * The RandomStrategy class represents a strategy that makes random valid moves in Othello.
- * It finds all possible moves and picks one at random.
+ * It finds all possible moves and picks one at random, with the caller's random numbers.
  */
 
 public class RandomStrategy extends Strategy {
-	
-	private final Random rand = new Random();
+    private final long solveMillis;
 
     /**
-     * Builds a new random strategy in the given Othello game.
-     *
-     * @param othello the current Othello game
-     * @param player the character representing this player (P1 or P2)
+     * Builds a new random strategy that plays the solver's move in the endgame.
      */
 
-    public RandomStrategy(Othello othello, char player) {
-        super(othello, player);
+    public RandomStrategy() {
+        this(EndgameSolver.DEFAULT_EMPTIES, EndgameSolver.DEFAULT_SOLVE_MILLIS);
+    }
+
+    /**
+     * Builds a new random strategy that plays the solver's move at or below endgameEmpties
+     * empty squares, and a random move when the solve takes longer than solveMillis.
+     */
+    public RandomStrategy(int endgameEmpties, long solveMillis) {
+        super(endgameEmpties, false);
+        this.solveMillis = solveMillis;
     }
 
     /**
-     * Picks and returns a random valid move for this player.
+     * Picks and returns a random valid move for the side to move.
      * If no valid moves are available, it returns null.
      *
      * @return a random Move for this player, or null if no moves are possible
      */
-	public Move getMove() {
-        ArrayList<int[]> moves = new ArrayList<>();
-
-        for (int row = 0; row < othello.othelloBoard.getDimension(); row++) {
-            for (int col = 0; col < othello.othelloBoard.getDimension(); col++) {
-                int tokens = GreedyStrategy.getToken(othello, player, row, col);
-                if (tokens > 0) moves.add(new int[]{row, col});
-            }
-        }
-        if (moves.isEmpty()) {
+	public Move getMove(Position position, SearchContext context) {
+        Move solved = endgameMove(position, context, System.nanoTime() + context.timeBudgetMillis(solveMillis) * 1_000_000);
+        if (solved != null) return solved;
+        MoveGenerator moves = context.getMoveGenerator();
+        int count = moves.generate(position);
+        if (count == 0) {
             return null;
         }
-        int randInt = rand.nextInt(moves.size());
-        int[] cell = moves.get(randInt);
-        return new Move(cell[0], cell[1]);
+        return moves.move(context.getRandom().nextInt(count));
 	}
 }
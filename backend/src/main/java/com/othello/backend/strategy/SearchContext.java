@@ -0,0 +1,147 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.MoveGenerator;
+import com.othello.backend.engine.TranspositionTable;
+
+import java.util.SplittableRandom;
+
+/**
+ * What one caller brings to a Strategy.getMove call: its random numbers, an optional
+ * time budget and scratch buffers, and afterwards the statistics of the search.
+ *
+ * Strategies keep no state of their own between calls, so a game keeps one context
+ * and passes it to every move; its buffers then stay warm from move to move. A context
+ * must not be used by two calls at once.
+ */
+public final class SearchContext {
+    private final SplittableRandom random;
+    private final MoveGenerator moveGenerator = new MoveGenerator();
+    private int[][] moveBuffers;
+    private long timeBudgetMillis; // 0 to use the strategy's own budget
+    private TranspositionTable table; // null to use the shared one
+    private SearchInfo.Listener listener;
+
+    // Statistics of the last search, filled in by the search strategies
+    private int depth;
+    private int score;
+    private long nodes;
+    private long playouts;
+    private long elapsedNanos;
+    private double workRatio;
+
+    public SearchContext() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * @param seed the seed of every random choice made with this context
+     */
+    public SearchContext(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    public SearchContext(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public SplittableRandom getRandom() { return random; }
+    public MoveGenerator getMoveGenerator() { return moveGenerator; }
+
+    /**
+     * Returns per-ply move-ordering buffers for an alpha-beta search on the calling thread.
+     */
+    int[][] getMoveBuffers() {
+        if (moveBuffers == null) moveBuffers = AlphaBetaStrategy.newMoveBuffers();
+        return moveBuffers;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * Limits the time each move may take with this context, overriding the strategy's own budget.
+     *
+     * @param timeBudgetMillis the budget, or 0 to use the strategy's own
+     */
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Returns the transposition table of searches run with this context: its own if it
+     * was given one, otherwise the table shared by all searches.
+     */
+    public TranspositionTable getTable() {
+        return (table != null) ? table : TranspositionTable.shared();
+    }
+
+    /**
+     * Gives searches run with this context a table of their own, or null to use the shared one.
+     */
+    public void setTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    public SearchInfo.Listener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets who hears the progress of searches run with this context, or null for no one.
+     */
+    public void setListener(SearchInfo.Listener listener) {
+        this.listener = listener;
+    }
+
+    boolean hasListener() {
+        return listener != null;
+    }
+
+    void reportProgress(int depth, int square, int score, double winRate, long nodes, long elapsedNanos) {
+        if (listener != null) listener.searchProgress(new SearchInfo(depth, square, score, winRate, nodes, elapsedNanos / 1_000_000));
+    }
+
+    long timeBudgetMillis(long strategyBudget) {
+        return (timeBudgetMillis > 0) ? timeBudgetMillis : strategyBudget;
+    }
+
+    void recordSearch(int depth, int score, long nodes, long playouts, long elapsedNanos, double workRatio) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.playouts = playouts;
+        this.elapsedNanos = elapsedNanos;
+        this.workRatio = workRatio;
+    }
+
+    /** The depth of the last finished alpha-beta iteration. */
+    public int getDepth() { return depth; }
+    /** The alpha-beta score of the last move, from the mover's point of view. */
+    public int getScore() { return score; }
+    public long getNodes() { return nodes; }
+    public long getPlayouts() { return playouts; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+    /**
+     * Returns the nodes or playouts of all threads in the last search over those of the
+     * calling thread alone: how much extra searching the helpers did, 1.0 on one thread.
+     * It is not a speedup, since helpers repeat part of each other's work; see
+     * ParallelSpeedup for time-to-depth and playout rates against one thread.
+     */
+    public double getWorkRatio() { return workRatio; }
+
+    /**
+     * Returns the node rate of the last alpha-beta search, over all threads.
+     */
+    public double getNodesPerSecond() {
+        return (elapsedNanos == 0) ? 0.0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the playout rate of the last Monte Carlo search.
+     */
+    public double getPlayoutsPerSecond() {
+        return (elapsedNanos == 0) ? 0.0 : playouts * 1e9 / elapsedNanos;
+    }
+}
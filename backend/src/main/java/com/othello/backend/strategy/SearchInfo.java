@@ -0,0 +1,48 @@
+package com.othello.backend.strategy;
+
+/**
+ * A progress report from a search that is still running: its current best move and
+ * what it thinks of it. Alpha-beta reports each finished iteration, Monte Carlo reports
+ * its most visited move every so often.
+ */
+public final class SearchInfo {
+    private final int depth;
+    private final int square;
+    private final int score;
+    private final double winRate;
+    private final long nodes;
+    private final long elapsedMillis;
+
+    /**
+     * @param depth the depth of the finished iteration, or 0 for a Monte Carlo search
+     * @param square the current best move
+     * @param score the alpha-beta score of the best move for the side to move, or 0
+     * @param winRate the side to move's chance of winning with the best move, or NaN if the search does not estimate one
+     * @param nodes the positions visited or playouts run so far
+     * @param elapsedMillis the time since the search started
+     */
+    public SearchInfo(int depth, int square, int score, double winRate, long nodes, long elapsedMillis) {
+        this.depth = depth;
+        this.square = square;
+        this.score = score;
+        this.winRate = winRate;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getDepth() { return depth; }
+    public int getSquare() { return square; }
+    public int getScore() { return score; }
+    public double getWinRate() { return winRate; }
+    public long getNodes() { return nodes; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    /**
+     * Listens to the progress of the searches run with one SearchContext. It is called on
+     * the searching thread, so it should return quickly.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void searchProgress(SearchInfo info);
+    }
+}
@@ -0,0 +1,60 @@
+package com.othello.backend.strategy;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The helper threads shared by every parallel search in the JVM.
+ * The pool has one daemon thread per core, so parallel searches from many games
+ * queue behind each other instead of oversubscribing the machine.
+ */
+final class SearchThreads {
+    private static final int SIZE = Runtime.getRuntime().availableProcessors();
+    private static final AtomicInteger COUNT = new AtomicInteger();
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(SIZE, r -> {
+        Thread t = new Thread(r, "othello-search-" + COUNT.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SearchThreads() {}
+
+    static int size() {
+        return SIZE;
+    }
+
+    static <T> Helper<T> submit(Callable<T> task) {
+        Helper<T> helper = new Helper<>();
+        helper.future = POOL.submit(() -> helper.started.compareAndSet(false, true) ? task.call() : null);
+        return helper;
+    }
+
+    /**
+     * A search task running, or waiting to run, on the pool.
+     */
+    static final class Helper<T> {
+        private final AtomicBoolean started = new AtomicBoolean();
+        private Future<T> future;
+
+        /**
+         * Stops a helper that has not started yet, otherwise waits for it to finish.
+         * @return the helper's result, or null if it never ran
+         */
+        T join() {
+            if (started.compareAndSet(false, true)) return null;
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+    }
+}
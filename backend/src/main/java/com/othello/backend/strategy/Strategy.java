@@ -1,38 +1,73 @@
 package com.othello.backend.strategy;
 
-import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.BitBoard;
 import com.othello.backend.engine.Move;
+import com.othello.backend.engine.OpeningBook;
+import com.othello.backend.engine.Position;
 /**
  * The strategy class is an abstract base for all types of Othello players.
- * It stores who the player is and gives a structure for making moves.
+ *
+ * A strategy holds only its settings, never the state of a game: each call gets an
+ * immutable Position and the caller's SearchContext. One instance of each strategy can
+ * therefore serve every game at once (see StrategyFactory), and Player binds it to a
+ * particular game and colour. Its settings are fixed when it is built, so no caller can
+ * change how it plays for the others.
  */
 public abstract class Strategy {
-    protected final Othello othello;
-    protected final char player;
+    protected final int endgameEmpties; // solve exactly at or below this many empty squares, 0 to never solve
+    protected final boolean useOpeningBook;
 
     /**
-     * Builds a new strategy in the given Othello game.
-     *
-     * @param othello the current Othello game
-     * @param player  the character representing this player (P1 or P2)
+     * @param endgameEmpties how few empty squares the board must have before this player
+     *        stops using its own method and plays the solver's perfect move, or 0 to never use the solver
+     * @param useOpeningBook whether this player plays the shared opening book's move, when it
+     *        has one, before using its own method
      */
-    public Strategy(Othello othello, char player) {
-        this.othello = othello;
-        this.player = player;
+    protected Strategy(int endgameEmpties, boolean useOpeningBook) {
+        this.endgameEmpties = endgameEmpties;
+        this.useOpeningBook = useOpeningBook;
     }
 
     /**
-     * Finds and returns the player's next move.
+     * Finds and returns the next move of the side to move in position.
      * Each type of player decides the move in its own way.
      *
-     * @return the chosen Move for this player
+     * @param position the position to move in
+     * @param context the caller's randomness, budget and buffers; receives the search statistics
+     * @return the chosen Move, or null if the side to move has no move
+     */
+    public abstract Move getMove(Position position, SearchContext context);
+
+    public int getEndgameEmpties() {
+        return endgameEmpties;
+    }
+
+    public boolean isUseOpeningBook() {
+        return useOpeningBook;
+    }
+
+    /**
+     * Returns the shared opening book's move for position, or null if this player
+     * does not use the book or the position is not in it.
      */
-    public abstract Move getMove();
+    protected Move bookMove(Position position) {
+        if (!useOpeningBook || position.getDimension() != BitBoard.WIDTH) return null;
+        int square = OpeningBook.shared().bestMove(position.getOwn(), position.getOpp(), position.getEmpty());
+        if (square < 0) return null;
+        return new Move(BitBoard.row(square), BitBoard.col(square));
+    }
 
     /**
-     * Return the character of this player.
+     * Returns the perfect move from the endgame solver once the board has few enough
+     * empty squares, or null if the position is not solved by the deadline.
+     *
+     * @param deadline the System.nanoTime() value at which to stop
      */
-    public char getPlayer() {
-        return player;
+    protected Move endgameMove(Position position, SearchContext context, long deadline) {
+        long empty = position.getEmpty();
+        if (Long.bitCount(empty) > endgameEmpties || position.legalMoves() == 0) return null;
+        EndgameSolver.Result result = EndgameSolver.solve(position.getOwn(), position.getOpp(), empty, deadline, context.getTable());
+        if (result == null) return null;
+        return new Move(BitBoard.row(result.getSquare()), BitBoard.col(result.getSquare()));
     }
 }
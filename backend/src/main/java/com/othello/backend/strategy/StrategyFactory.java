@@ -3,15 +3,110 @@ package com.othello.backend.strategy;
 import com.othello.backend.engine.Othello;
 import com.othello.backend.engine.OthelloBoard;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Makes the named strategies. Strategies are stateless, so the factory builds each one
+ * once and every game it makes a Player for shares that instance.
+ */
 public class StrategyFactory {
-    public Strategy createStrategy(Othello game, String product) {
+    public static final List<String> PRODUCTS =
+            List.of("Random", "Greedy", "AlphaBeta", "MonteCarlo", "ParallelAlphaBeta", "ParallelMonteCarlo");
+
+    private final int searchDepth;
+    private final long timeBudgetMillis;
+    private final int searchThreads;
+    private final int endgameEmpties;
+    private final long solveMillis;
+    private final Map<String, Strategy> strategies;
+
+    public StrategyFactory() {
+        this(AlphaBetaStrategy.DEFAULT_DEPTH, AlphaBetaStrategy.DEFAULT_TIME_BUDGET_MILLIS, SearchThreads.size());
+    }
+
+    /**
+     * Creates a factory whose strategies have the default strength and the given endgame settings.
+     */
+    public StrategyFactory(int endgameEmpties, long solveMillis) {
+        this(AlphaBetaStrategy.DEFAULT_DEPTH, AlphaBetaStrategy.DEFAULT_TIME_BUDGET_MILLIS, SearchThreads.size(),
+                endgameEmpties, solveMillis);
+    }
+
+    /**
+     * Creates a factory whose search strategies use the given strength.
+     *
+     * @param searchDepth the deepest search iteration, in plies
+     * @param timeBudgetMillis the most time a search strategy may spend on one move
+     * @param searchThreads the number of threads the parallel strategies search with
+     */
+    public StrategyFactory(int searchDepth, long timeBudgetMillis, int searchThreads) {
+        this(searchDepth, timeBudgetMillis, searchThreads, EndgameSolver.DEFAULT_EMPTIES, EndgameSolver.DEFAULT_SOLVE_MILLIS);
+    }
+
+    /**
+     * Creates a factory whose strategies use the given strength and endgame settings.
+     *
+     * @param endgameEmpties the empty squares at or below which every strategy plays the
+     *        endgame solver's move, or 0 to never solve
+     * @param solveMillis the most time Random and Greedy let the solver spend on one move;
+     *        the search strategies give it half of their own budget
+     */
+    public StrategyFactory(int searchDepth, long timeBudgetMillis, int searchThreads, int endgameEmpties, long solveMillis) {
+        this.searchDepth = searchDepth;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.searchThreads = searchThreads;
+        this.endgameEmpties = endgameEmpties;
+        this.solveMillis = solveMillis;
+        Map<String, Strategy> strategies = new HashMap<>();
+        for (String product : PRODUCTS) strategies.put(product, createStrategy(product));
+        this.strategies = Map.copyOf(strategies);
+    }
+
+    /**
+     * Returns the shared instance of the named strategy, or null if product names no strategy.
+     */
+    public Strategy getStrategy(String product) {
+        return (product == null) ? null : strategies.get(product);
+    }
+
+    public Player createPlayer(Othello game, String product) {
+        return createPlayer(game, product, OthelloBoard.P2, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Creates a player of the named strategy playing as player, with any randomness it uses seeded by seed.
+     *
+     * @return the player, or null if product names no strategy
+     */
+    public Player createPlayer(Othello game, String product, char player, long seed) {
+        Strategy strategy = getStrategy(product);
+        if (strategy == null) return null;
+        return new Player(game, player, strategy, new SearchContext(seed));
+    }
+
+    private Strategy createStrategy(String product) {
         if (product.equals("Random")) {
-            return new RandomStrategy(game, OthelloBoard.P2);
+            return new RandomStrategy(endgameEmpties, solveMillis);
         }
         else if (product.equals("Greedy")) {
-            return new  GreedyStrategy(game, OthelloBoard.P2);
+            return new  GreedyStrategy(endgameEmpties, solveMillis);
+        }
+        else if (product.equals("AlphaBeta")) {
+            return new AlphaBetaStrategy(searchDepth, timeBudgetMillis, Long.MAX_VALUE, 1, endgameEmpties, true);
+        }
+        else if (product.equals("MonteCarlo")) {
+            return new MonteCarloStrategy(MonteCarloStrategy.DEFAULT_ITERATIONS, timeBudgetMillis, 1, endgameEmpties, true);
+        }
+        else if (product.equals("ParallelAlphaBeta")) {
+            return new AlphaBetaStrategy(searchDepth + 2, timeBudgetMillis, Long.MAX_VALUE, searchThreads, endgameEmpties, true);
+        }
+        else if (product.equals("ParallelMonteCarlo")) {
+            return new MonteCarloStrategy(MonteCarloStrategy.DEFAULT_ITERATIONS * searchThreads,
+                    timeBudgetMillis, searchThreads, endgameEmpties, true);
         }
         return null;
     }
 }
-
@@ -0,0 +1,285 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays a headless match between two StrategyFactory strategies and reports the result.
+ *
+ * Games run concurrently, one per core. Each running game's two strategies search with
+ * transposition tables of their own, cleared before every game, so no game learns from
+ * another or from its opponent's search. Every game starts with a few random
+ * moves drawn from the match seed, and each opening is played twice with the colours
+ * swapped, so neither strategy profits from a lucky opening or from moving first.
+ * The report gives win/draw/loss, the Elo difference with a 95% confidence interval,
+ * games per second and the think-time percentiles of each strategy.
+ *
+ * Usage: Tournament strategyA strategyB [games] [seed] [time-ms] [opening-plies]
+ */
+public final class Tournament {
+    public static final int DEFAULT_GAMES = 1000;
+    public static final int DEFAULT_OPENING_PLIES = 6;
+    private static final long TABLE_ENTRIES = 1 << 18; // 4 MB per strategy per running game
+
+    private final StrategyFactory factory;
+    private final String first;
+    private final String second;
+    private final int games;
+    private final long seed;
+    private final int openingPlies;
+
+    /**
+     * @param factory the factory that creates both strategies
+     * @param first the name of strategy A
+     * @param second the name of strategy B
+     * @param games the number of games; rounded up to an even number so every opening is played both ways
+     * @param seed the seed of the openings and of the strategies' own randomness
+     * @param openingPlies the number of random moves at the start of each game
+     */
+    public Tournament(StrategyFactory factory, String first, String second, int games, long seed, int openingPlies) {
+        this.factory = factory;
+        this.first = first;
+        this.second = second;
+        this.games = games + (games & 1);
+        this.seed = seed;
+        this.openingPlies = openingPlies;
+    }
+
+    /**
+     * The outcome of one game.
+     */
+    private static final class Game {
+        int margin; // A's discs minus B's
+        long[] firstTimes = new long[32];
+        int firstMoves;
+        long[] secondTimes = new long[32];
+        int secondMoves;
+
+        void record(boolean first, long nanos) {
+            if (first) {
+                if (firstMoves == firstTimes.length) firstTimes = Arrays.copyOf(firstTimes, firstMoves * 2);
+                firstTimes[firstMoves++] = nanos;
+            } else {
+                if (secondMoves == secondTimes.length) secondTimes = Arrays.copyOf(secondTimes, secondMoves * 2);
+                secondTimes[secondMoves++] = nanos;
+            }
+        }
+    }
+
+    /**
+     * Plays every game and returns the report.
+     */
+    public Report run() throws InterruptedException {
+        int concurrency = Math.min(games, Runtime.getRuntime().availableProcessors());
+        // One pair of tables per running game, taken by a game and returned when it ends
+        BlockingQueue<TranspositionTable[]> tables = new ArrayBlockingQueue<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            tables.add(new TranspositionTable[] {new TranspositionTable(TABLE_ENTRIES), new TranspositionTable(TABLE_ENTRIES)});
+        }
+        long start = System.nanoTime();
+        List<Future<Game>> futures = new ArrayList<>(games);
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+            for (int g = 0; g < games; g++) {
+                int index = g;
+                futures.add(executor.submit(() -> {
+                    TranspositionTable[] pair = tables.take();
+                    try {
+                        return play(index, pair[0], pair[1]);
+                    } finally {
+                        tables.add(pair);
+                    }
+                }));
+            }
+        } finally {
+            for (TranspositionTable[] pair : tables) {
+                pair[0].close();
+                pair[1].close();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Report report = new Report(first, second, elapsed);
+        for (Future<Game> future : futures) {
+            try {
+                report.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A tournament game failed", e.getCause());
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Plays game index: A has P1 in even games and P2 in odd ones, and each pair shares an opening.
+     * A and B search with tableA and tableB, which are cleared first.
+     */
+    private Game play(int index, TranspositionTable tableA, TranspositionTable tableB) {
+        SplittableRandom openingRng = new SplittableRandom(seed + index / 2);
+        SplittableRandom strategyRng = new SplittableRandom(seed ^ (0x9e3779b97f4a7c15L * (index + 1)));
+        char firstPlayer = ((index & 1) == 0) ? OthelloBoard.P1 : OthelloBoard.P2;
+        char secondPlayer = OthelloBoard.otherPlayer(firstPlayer);
+
+        Othello othello = new Othello();
+        Player a = factory.createPlayer(othello, first, firstPlayer, strategyRng.nextLong());
+        Player b = factory.createPlayer(othello, second, secondPlayer, strategyRng.nextLong());
+        if (a == null || b == null) throw new IllegalArgumentException("Unknown strategy " + (a == null ? first : second));
+        tableA.clear();
+        tableB.clear();
+        a.getContext().setTable(tableA);
+        b.getContext().setTable(tableB);
+
+        Game game = new Game();
+        for (int ply = 0; !othello.isGameOver(); ply++) {
+            char turn = othello.getWhosTurn();
+            Move move;
+            if (ply < openingPlies) {
+                long moves = othello.getBoard().legalMoves(turn);
+                int square = Playout.nthSquare(moves, openingRng.nextInt(Long.bitCount(moves)));
+                move = new Move(BitBoard.row(square), BitBoard.col(square));
+            } else {
+                boolean isFirst = turn == firstPlayer;
+                long t0 = System.nanoTime();
+                move = (isFirst ? a : b).getMove();
+                game.record(isFirst, System.nanoTime() - t0);
+            }
+            if (!othello.move(turn, move).isSuccess()) {
+                throw new IllegalStateException("Strategy played an illegal move " + move + " for " + turn);
+            }
+        }
+        game.margin = othello.getCount(firstPlayer) - othello.getCount(secondPlayer);
+        return game;
+    }
+
+    /**
+     * The results of a match, from strategy A's point of view.
+     */
+    public static final class Report {
+        private final String first;
+        private final String second;
+        private final long elapsedNanos;
+        private int wins, draws, losses;
+        private long[] firstTimes = new long[1024];
+        private int firstMoves;
+        private long[] secondTimes = new long[1024];
+        private int secondMoves;
+
+        Report(String first, String second, long elapsedNanos) {
+            this.first = first;
+            this.second = second;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void add(Game game) {
+            if (game.margin > 0) wins++;
+            else if (game.margin < 0) losses++;
+            else draws++;
+            firstTimes = append(firstTimes, firstMoves, game.firstTimes, game.firstMoves);
+            firstMoves += game.firstMoves;
+            secondTimes = append(secondTimes, secondMoves, game.secondTimes, game.secondMoves);
+            secondMoves += game.secondMoves;
+        }
+
+        private static long[] append(long[] all, int size, long[] more, int count) {
+            if (size + count > all.length) all = Arrays.copyOf(all, Math.max(all.length * 2, size + count));
+            System.arraycopy(more, 0, all, size, count);
+            return all;
+        }
+
+        public int getWins() { return wins; }
+        public int getDraws() { return draws; }
+        public int getLosses() { return losses; }
+
+        public int getGames() {
+            return wins + draws + losses;
+        }
+
+        /** A's score per game: 1 for a win, 0.5 for a draw. */
+        public double getScore() {
+            return (wins + 0.5 * draws) / getGames();
+        }
+
+        /** A's rating minus B's. */
+        public double getElo() {
+            return elo(getScore());
+        }
+
+        /**
+         * Returns the low and high ends of the 95% confidence interval of getElo().
+         */
+        public double[] getEloInterval() {
+            double p = getScore();
+            int n = getGames();
+            double variance = (wins * (1 - p) * (1 - p) + draws * (0.5 - p) * (0.5 - p) + losses * p * p) / n;
+            double margin = 1.96 * Math.sqrt(variance / n);
+            return new double[] {elo(p - margin), elo(p + margin)};
+        }
+
+        public double getGamesPerSecond() {
+            return getGames() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Returns A's (first) or B's think-time percentile in milliseconds.
+         *
+         * @param percentile from 0 to 100
+         */
+        public double getThinkMillis(boolean first, double percentile) {
+            long[] sorted = first ? Arrays.copyOf(firstTimes, firstMoves) : Arrays.copyOf(secondTimes, secondMoves);
+            if (sorted.length == 0) return 0.0;
+            Arrays.sort(sorted);
+            int i = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, i))] / 1e6;
+        }
+
+        // Elo difference for an expected score; certain wins and losses are capped at +-800
+        private static double elo(double score) {
+            double p = Math.max(0.01, Math.min(0.99, score));
+            return -400 * Math.log10(1 / p - 1);
+        }
+
+        @Override
+        public String toString() {
+            double[] interval = getEloInterval();
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%s vs %s: %d games, +%d =%d -%d, score %.1f%%%n",
+                    first, second, getGames(), wins, draws, losses, 100 * getScore()));
+            sb.append(String.format("Elo %+.0f (95%% CI %+.0f to %+.0f)%n", getElo(), interval[0], interval[1]));
+            sb.append(String.format("%.2f games/s%n", getGamesPerSecond()));
+            sb.append(thinkLine(first, true)).append(thinkLine(second, false));
+            return sb.toString();
+        }
+
+        private String thinkLine(String name, boolean first) {
+            return String.format("%s think ms: p50 %.2f, p90 %.2f, p99 %.2f, max %.2f%n", name,
+                    getThinkMillis(first, 50), getThinkMillis(first, 90), getThinkMillis(first, 99), getThinkMillis(first, 100));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage: Tournament strategyA strategyB [games] [seed] [time-ms] [opening-plies]");
+            return;
+        }
+        int games = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+        long seed = (args.length > 3) ? Long.parseLong(args[3]) : 1;
+        long timeMillis = (args.length > 4) ? Long.parseLong(args[4]) : AlphaBetaStrategy.DEFAULT_TIME_BUDGET_MILLIS;
+        int openingPlies = (args.length > 5) ? Integer.parseInt(args[5]) : DEFAULT_OPENING_PLIES;
+
+        StrategyFactory factory = new StrategyFactory(AlphaBetaStrategy.DEFAULT_DEPTH, timeMillis, SearchThreads.size());
+        System.out.print(new Tournament(factory, args[0], args[1], games, seed, openingPlies).run());
+    }
+}
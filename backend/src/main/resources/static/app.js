@@ -19,6 +19,13 @@ document.addEventListener('DOMContentLoaded', () => {
     const gameOverMessage = document.getElementById('game-over-message');
     const newGameFromOverBtn = document.getElementById('new-game-from-over');
     let inputLocked = false;
+    let events = null; // the game's Server-Sent Events, while connected
+    let lastVersion = -1; // the newest game state shown
+    let gameOverShown = false;
+    // Game states come in the server's 37-byte binary form instead of JSON; set to false for JSON
+    const compactStates = true;
+    const COMPACT_TYPE = 'application/vnd.othello.moves';
+    const ACCEPT_STATES = compactStates ? `${COMPACT_TYPE}, application/json;q=0.9` : 'application/json';
 
     if (localStorage.userId === undefined) {
         localStorage.userId = crypto.randomUUID();
@@ -54,7 +61,7 @@ document.addEventListener('DOMContentLoaded', () => {
                 cell.dataset.row = row;
                 cell.dataset.col = col;
                 cell.addEventListener('click', () =>
-                    handleMoveAction('move', { row, column: col })
+                    handleMove({ row, column: col })
                 );
 
                 if (boardState[row][col] !== 0) {
@@ -76,17 +83,24 @@ document.addEventListener('DOMContentLoaded', () => {
         evalFill.style.height = `${value * maxHeight}px`;
     }
 
+    function updateWinProbability(result) {
+        // winProbability is the player's chance of winning, or null while the backend is still estimating it
+        if (result.winProbability == null) return;
+        updateEvalBar((1 - 2 * result.winProbability) * 0.8);
+    }
+
     async function handleMoveAction(action, body = {}) {
         if (inputLocked) return
-        let result = await postRequest(action, body);
+        let result = await postRequest(action, body, true);
         if (!result) return;
         console.log(result)
         let firstMove = result.shift();
+        lastVersion = Math.max(lastVersion, ...result.map(r => r.version), firstMove.version);
 
         turnText.innerText = (firstMove.nextTurn === 'X') ? 'YOUR MOVE' : "BOT'S MOVE";
         renderBoard(createBoard(firstMove));
         updatePiecesCount(firstMove);
-        updateEvalBar((Math.random() - 0.5) * 1.6);
+        updateWinProbability(firstMove);
 
         for (let move of result) {
             inputLocked = true;
@@ -94,7 +108,7 @@ document.addEventListener('DOMContentLoaded', () => {
             turnText.innerText = (move.nextTurn === 'X') ? 'YOUR MOVE' : "BOT'S MOVE";
             renderBoard(createBoard(move));
             updatePiecesCount(move);
-            updateEvalBar((Math.random() - 0.5) * 1.6);
+            updateWinProbability(move);
             inputLocked = false;
         }
 
@@ -102,6 +116,103 @@ document.addEventListener('DOMContentLoaded', () => {
             const lastResult = result[result.length - 1] || firstMove;
             return handleGameOver(lastResult);
         }
+
+        const lastResult = result.at(-1) || firstMove;
+        if (lastResult.winProbability == null) refreshWinProbability();
+    }
+
+    function renderResult(result) {
+        lastVersion = Math.max(lastVersion, result.version);
+        turnText.innerText = (result.nextTurn === 'X') ? 'YOUR MOVE' : "BOT'S MOVE";
+        renderBoard(createBoard(result));
+        updatePiecesCount(result);
+        updateWinProbability(result);
+    }
+
+    // Moves, the bot's search progress and the end of the game are pushed by the server.
+    // EventSource reconnects by itself, and the server starts every stream with the current state
+    function openEvents() {
+        closeEvents();
+        events = new EventSource(`/api/v1/games/events?userId=${encodeURIComponent(userId)}`);
+        events.addEventListener('move', (e) => {
+            const state = JSON.parse(e.data);
+            if (state.version <= lastVersion) return;
+            renderResult(state);
+            inputLocked = !state.gameOver && state.nextTurn !== 'X';
+            if (!state.gameOver && state.winProbability == null) refreshWinProbability();
+        });
+        events.addEventListener('search', (e) => {
+            const info = JSON.parse(e.data);
+            if (info.version < lastVersion) return;
+            turnText.innerText = info.depth > 0 ? `BOT'S MOVE (depth ${info.depth})` : "BOT'S MOVE";
+            updateWinProbability(info);
+        });
+        events.addEventListener('game-over', (e) => handleGameOver(JSON.parse(e.data)));
+    }
+
+    function closeEvents() {
+        if (events) events.close();
+        events = null;
+    }
+
+    // The player's move is answered at once; the bot's reply is searched on the server and
+    // arrives as an event, or without events by long-polling /state/next with the version last seen
+    async function handleMove(body) {
+        if (inputLocked) return;
+        let state = await postRequest('move/async', body);
+        if (!state) return;
+        if (events && events.readyState === EventSource.OPEN) {
+            if (state.version > lastVersion) {
+                renderResult(state);
+                inputLocked = !state.gameOver && state.nextTurn !== 'X';
+            }
+            return;
+        }
+        renderResult(state);
+
+        inputLocked = true;
+        while (!state.gameOver && state.nextTurn !== 'X') {
+            const next = await getRequest(`state/next?after=${state.version}`);
+            if (!next) break;
+            if (next.version !== state.version) {
+                await sleep(0.3);
+                renderResult(next);
+            }
+            state = next;
+        }
+        inputLocked = false;
+
+        if (state.gameOver) return handleGameOver(state);
+        if (state.winProbability == null) refreshWinProbability();
+    }
+
+    async function getRequest(url) {
+        try {
+            const response = await fetch(`/api/v1/games/${url}`, {
+                headers: { 'X-User-ID': userId, 'Accept': ACCEPT_STATES }
+            });
+            if (!response.ok) {
+                const errorBody = await response.json();
+                throw new Error(errorBody.message || `HTTP ${response.status}`);
+            }
+            return await readStates(response, false);
+        } catch (err) {
+            console.log(err);
+            return null;
+        }
+    }
+
+    // The estimate is computed in the background, so ask for the state again once it has had time
+    async function refreshWinProbability() {
+        await sleep(0.5);
+        try {
+            const response = await fetch('/api/v1/games/state', {
+                headers: { 'X-User-ID': userId, 'Accept': ACCEPT_STATES }
+            });
+            if (response.ok) updateWinProbability(await readStates(response, false));
+        } catch (err) {
+            console.log(err);
+        }
     }
 
     function updatePiecesCount(result) {
@@ -114,14 +225,60 @@ document.addEventListener('DOMContentLoaded', () => {
         return new Promise(resolve => setTimeout(resolve, seconds * 1000));
     }
 
-    async function postRequest(url, body = {}) {
+    // Errors are always JSON; a list of states is answered in the binary form if the server chose it
+    async function readStates(response, many) {
+        if (!(response.headers.get('Content-Type') || '').startsWith(COMPACT_TYPE)) return await response.json();
+        const states = decodeStates(new DataView(await response.arrayBuffer()));
+        return many ? states : states[0];
+    }
+
+    // Layout: a count byte, then per state Player 1's and Player 2's squares as 64-bit masks,
+    // the version, a flags byte (1 success, 2 game over), the next turn, the win probability
+    // in 1/10000 (-1 while unknown), the flipped discs' mask and the square played (-1 for
+    // none). See CompactMoveResponse
+    function decodeStates(view) {
+        const states = [];
+        let offset = 1;
+        for (let i = 0; i < view.getUint8(0); i++, offset += 37) {
+            const p1 = view.getBigUint64(offset), p2 = view.getBigUint64(offset + 8);
+            const board = [];
+            let black = 0, white = 0;
+            for (let row = 0; row < 8; row++) {
+                let line = '';
+                for (let col = 0; col < 8; col++) {
+                    const bit = 1n << BigInt(row * 8 + col);
+                    if (p1 & bit) { line += 'X'; black++; }
+                    else if (p2 & bit) { line += 'O'; white++; }
+                    else line += ' ';
+                }
+                board.push(line);
+            }
+            const flags = view.getUint8(offset + 24);
+            const winProbability = view.getInt16(offset + 26);
+            const placed = view.getInt8(offset + 36);
+            states.push({
+                success: (flags & 1) !== 0,
+                gameOver: (flags & 2) !== 0,
+                nextTurn: String.fromCharCode(view.getUint8(offset + 25)),
+                board,
+                piecesCount: [black, white],
+                version: Number(view.getBigInt64(offset + 16)),
+                winProbability: winProbability < 0 ? null : winProbability / 10000,
+                placed: placed < 0 ? null : { row: placed >> 3, col: placed & 7 },
+                flips: view.getBigUint64(offset + 28)
+            });
+        }
+        return states;
+    }
+
+    async function postRequest(url, body = {}, many = false) {
         try {
             const response = await fetch(`/api/v1/games/${url}`, {
                 method: 'POST',
                 headers: {
                     'X-User-ID': userId,
                     'Content-Type': 'application/json',
-                    'Accept': 'application/json'
+                    'Accept': ACCEPT_STATES
                 },
                 body: JSON.stringify(body)
             });
@@ -130,7 +287,7 @@ document.addEventListener('DOMContentLoaded', () => {
                 const errorBody = await response.json();
                 throw new Error(errorBody.message || `HTTP ${response.status}`);
             }
-            return await response.json();
+            return await readStates(response, many);
         } catch (err) {
             alert(err.message);
             if (url === 'new') {
@@ -164,6 +321,7 @@ document.addEventListener('DOMContentLoaded', () => {
         });
         document.querySelectorAll('.coord-label').forEach(el => el.remove());
         updateEvalBar(0);
+        closeEvents();
     }
 
     async function initGame() {
@@ -184,9 +342,15 @@ document.addEventListener('DOMContentLoaded', () => {
         updateEvalBar(0); // neutral at start
         turnText.innerText = "YOUR MOVE";
         inputLocked = false;
+        lastVersion = result.version;
+        gameOverShown = false;
+        openEvents();
     }
 
     async function handleGameOver(result) {
+        if (gameOverShown) return;
+        gameOverShown = true;
+        closeEvents();
         deleteRequest();
         await sleep(1.5);
 
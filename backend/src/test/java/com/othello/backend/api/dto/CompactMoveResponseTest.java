@@ -0,0 +1,51 @@
+package com.othello.backend.api.dto;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.MoveResult;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.engine.OthelloBoard;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompactMoveResponseTest {
+
+	@Test
+	void encodesEveryFieldAtItsOffset() {
+		Othello game = new Othello();
+		OthelloBoard board = game.getBoard();
+		int square = Long.numberOfTrailingZeros(board.legalMoves(OthelloBoard.P1));
+		MoveResult played = game.move(OthelloBoard.P1, new Move(BitBoard.row(square), BitBoard.col(square)));
+		MoveResponseDTO move = new MoveResponseDTO(played);
+		move.setVersion(7);
+		MoveResponseDTO estimated = new MoveResponseDTO(move, 0.25);
+		MoveResponseDTO over = new MoveResponseDTO(new MoveResult(false, ' ', board, true, game.getPiecesCount()));
+
+		ByteBuffer in = ByteBuffer.wrap(CompactMoveResponse.encode(List.of(estimated, over)));
+		assertEquals(1 + 2 * CompactMoveResponse.STATE_BYTES, in.remaining());
+		assertEquals(2, in.get());
+
+		assertEquals(board.getBits(OthelloBoard.P1), in.getLong());
+		assertEquals(board.getBits(OthelloBoard.P2), in.getLong());
+		assertEquals(7, in.getLong());
+		assertEquals(1, in.get()); // success
+		assertEquals(OthelloBoard.P2, (char) in.get());
+		assertEquals(2500, in.getShort());
+		assertEquals(played.getFlips(), in.getLong());
+		assertEquals(square, in.get());
+
+		assertEquals(board.getBits(OthelloBoard.P1), in.getLong());
+		assertEquals(board.getBits(OthelloBoard.P2), in.getLong());
+		assertEquals(0, in.getLong());
+		assertEquals(2, in.get()); // game over, not a success
+		assertEquals(' ', (char) in.get());
+		assertEquals(-1, in.getShort()); // not estimated
+		assertEquals(0, in.getLong());
+		assertEquals(-1, in.get()); // no move played
+		assertEquals(0, in.remaining());
+	}
+}
@@ -0,0 +1,87 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.api.exception.GameNotFoundException;
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.MoveCommand;
+import com.othello.backend.engine.Othello;
+import com.othello.backend.strategy.StrategyFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameJournalTest {
+	private static final StrategyFactory FACTORY = new StrategyFactory();
+
+	@Test
+	void recoversGamesAfterACrash() throws Exception {
+		Path dir = Files.createTempDirectory("journal");
+		GameJournal journal = new GameJournal(dir.toString(), 1 << 16, true, 60, 1024);
+		GameSessionStore store = new GameSessionStore(30, 100, Long.MAX_VALUE, "", 24, 3600, journal, FACTORY);
+
+		GameSession alice = store.create("alice", "Random");
+		play(alice, 3);
+		alice.write(() -> alice.getEngine().undoMove());
+		journal.created("carol", null); // cannot be journaled, and must not take the others down with it
+		GameSession bob = store.create("bob", "Greedy");
+		play(bob, 1);
+		store.remove("bob");
+		byte[] expected = encode(alice);
+		awaitEvents(journal, 8);
+
+		// No shutdown: the next journal recovers from the segment alone, as after a crash
+		GameSessionStore recovered = new GameSessionStore(30, 100, Long.MAX_VALUE, "", 24, 3600,
+				new GameJournal(dir.toString(), 1 << 16, true, 60, 1024), FACTORY);
+		assertArrayEquals(expected, encode(recovered.get("alice")));
+		assertThrows(GameNotFoundException.class, () -> recovered.get("bob"));
+		assertThrows(GameNotFoundException.class, () -> recovered.get("carol"));
+		assertEquals(1, journal.getFailures());
+	}
+
+	@Test
+	void restoresNoMoreGamesThanTheCapsAllow() throws Exception {
+		Path dir = Files.createTempDirectory("journal");
+		Path spillDir = Files.createTempDirectory("spill");
+		GameJournal journal = new GameJournal(dir.toString(), 1 << 16, true, 60, 1024);
+		GameSessionStore store = new GameSessionStore(30, 100, Long.MAX_VALUE, spillDir.toString(), 24, 3600, journal, FACTORY);
+		for (String user : new String[] {"a", "b", "c"}) play(store.create(user, "Random"), 2);
+		awaitEvents(journal, 9);
+
+		GameSessionStore recovered = new GameSessionStore(30, 1, Long.MAX_VALUE, spillDir.toString(), 24, 3600,
+				new GameJournal(dir.toString(), 1 << 16, true, 60, 1024), FACTORY);
+		assertEquals(1, recovered.getMetrics().getLiveSessions());
+		assertEquals(2, recovered.getMetrics().getSpilledSessions());
+		for (String user : new String[] {"a", "b", "c"}) assertEquals(2, recovered.get(user).getEngine().getHistory().size());
+	}
+
+	// Plays the first legal move of whoever is to move, moves times
+	private static void play(GameSession session, int moves) {
+		session.write(() -> {
+			Othello game = session.getGame();
+			for (int i = 0; i < moves; i++) {
+				int square = Long.numberOfTrailingZeros(game.getBoard().legalMoves(game.getWhosTurn()));
+				Move move = new Move(BitBoard.row(square), BitBoard.col(square));
+				session.getEngine().executeMove(new MoveCommand(game, move, game.getWhosTurn()));
+			}
+		});
+	}
+
+	private static byte[] encode(GameSession session) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SpilledGame.of(session).write(out);
+		return out.toByteArray();
+	}
+
+	// The writer thread journals in the background; wait until it has caught up
+	private static void awaitEvents(GameJournal journal, long events) throws InterruptedException {
+		for (int i = 0; i < 500 && journal.getEvents() < events; i++) Thread.sleep(10);
+		assertEquals(events, journal.getEvents());
+	}
+}
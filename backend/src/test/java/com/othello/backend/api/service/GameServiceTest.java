@@ -0,0 +1,52 @@
+package com.othello.backend.api.service;
+
+import com.othello.backend.api.dto.ReplayResponseDTO;
+import com.othello.backend.strategy.StrategyFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameServiceTest {
+	private final GameSessionStore sessions = new GameSessionStore(30, 100, Long.MAX_VALUE, "", 24, 3600,
+			new GameJournal("", 0, false, 0, 1), new StrategyFactory());
+	private final WinProbabilityService winProbability = new WinProbabilityService(10, 5, 1, 64, 1024);
+	private final AiMoveExecutor aiMoves = new AiMoveExecutor(1, 4, 1000);
+	private final GameService service = new GameService(sessions, winProbability, aiMoves, new GameEventService(0, 64), 1000);
+
+	@AfterEach
+	void shutdown() {
+		aiMoves.shutdown();
+		winProbability.shutdown();
+		sessions.shutdown();
+	}
+
+	@Test
+	void replaysAStandardTranscriptToItsFinalCount() {
+		service.createNewGameEngine("maruo", "Greedy");
+		// The shortest perfect game, Black wiping White out in nine moves
+		ReplayResponseDTO replay = service.replayMoves("maruo", GameService.parseTranscript("f5 d6 c5 f4 e3 f6 g5 e6 e7"));
+
+		assertEquals(9, replay.getApplied());
+		assertNull(replay.getFirstIllegalMove());
+		assertTrue(replay.getState().isGameOver());
+		assertEquals(List.of(13, 0), replay.getState().getPiecesCount());
+	}
+
+	@Test
+	void reportsTheFirstIllegalMoveOfATranscript() {
+		service.createNewGameEngine("pair", "Greedy");
+		ReplayResponseDTO badPair = service.replayMoves("pair", GameService.parseTranscript("f5d6z9c3"));
+		assertEquals(2, badPair.getApplied());
+		assertEquals(2, (int) badPair.getFirstIllegalMove());
+
+		service.createNewGameEngine("trailing", "Greedy");
+		ReplayResponseDTO trailing = service.replayMoves("trailing", GameService.parseTranscript("f5d6c"));
+		assertEquals(2, trailing.getApplied());
+		assertEquals(2, (int) trailing.getFirstIllegalMove());
+	}
+}
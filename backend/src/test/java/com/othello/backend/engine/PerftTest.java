@@ -0,0 +1,25 @@
+package com.othello.backend.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PerftTest {
+
+	// Leaves at depths 1 to 10 from the initial position
+	private static final long[] EXPECTED = {4, 12, 56, 244, 1396, 8200, 55092, 390216, 3005288, 24571284};
+
+	@Test
+	void countsMatchPublishedValues() {
+		OthelloBoard board = new OthelloBoard(Othello.DIMENSION);
+		for (int depth = 1; depth <= 9; depth++) {
+			assertEquals(EXPECTED[depth - 1], Perft.count(board, OthelloBoard.P1, depth), "depth " + depth);
+		}
+	}
+
+	@Test
+	void parallelCountMatchesAtDepthTen() {
+		OthelloBoard board = new OthelloBoard(Othello.DIMENSION);
+		assertEquals(EXPECTED[9], Perft.countParallel(board, OthelloBoard.P1, 10));
+	}
+}
@@ -0,0 +1,72 @@
+package com.othello.backend.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SymmetryTest {
+
+	@Test
+	void rotationsComposeToTheIdentity() {
+		long b = 0x0000000000000f0bL;
+		assertEquals(b, Symmetry.rotateClockwise(Symmetry.rotateClockwise(Symmetry.rotateClockwise(Symmetry.rotateClockwise(b)))));
+		assertEquals(Symmetry.rotateHalf(b), Symmetry.rotateClockwise(Symmetry.rotateClockwise(b)));
+		assertEquals(b, Symmetry.rotateAnticlockwise(Symmetry.rotateClockwise(b)));
+	}
+
+	@Test
+	void symmetricCopiesShareOneCanonicalForm() {
+		SplittableRandom rng = new SplittableRandom(1);
+		for (int i = 0; i < 1000; i++) {
+			long own = rng.nextLong(), opp = rng.nextLong() & ~own;
+			Symmetry.Canonical canonical = Symmetry.canonicalize(own, opp);
+			for (int t = 0; t < Symmetry.COUNT; t++) {
+				Symmetry.Canonical copy = Symmetry.canonicalize(Symmetry.transform(own, t), Symmetry.transform(opp, t));
+				assertEquals(canonical.getOwn(), copy.getOwn());
+				assertEquals(canonical.getOpp(), copy.getOpp());
+			}
+			for (int square = 0; square < 64; square++) {
+				assertEquals(square, canonical.toOriginal(canonical.toCanonical(square)));
+				long bit = 1L << square;
+				assertEquals((own & bit) != 0, (canonical.getOwn() & (1L << canonical.toCanonical(square))) != 0);
+			}
+		}
+	}
+
+	@Test
+	void symmetricGameRecordsShareOneCanonicalForm() {
+		OthelloBoard start = new OthelloBoard(Othello.DIMENSION);
+		long p1 = start.getBits(OthelloBoard.P1), p2 = start.getBits(OthelloBoard.P2);
+		List<Move> game = randomGame(new SplittableRandom(7));
+		String canonical = Symmetry.canonicalizeRecord(p1, p2, game).toString();
+
+		for (int t = 0; t < Symmetry.COUNT; t++) {
+			// Only the transforms that leave the initial position alone turn a game into another legal game
+			if (Symmetry.transform(p1, t) != p1 || Symmetry.transform(p2, t) != p2) continue;
+			List<Move> copy = new ArrayList<>();
+			for (Move m : game) copy.add(Symmetry.transformMove(m, t));
+			assertEquals(canonical, Symmetry.canonicalizeRecord(p1, p2, copy).toString(), "transform " + t);
+		}
+	}
+
+	private static List<Move> randomGame(SplittableRandom rng) {
+		OthelloBoard board = new OthelloBoard(Othello.DIMENSION);
+		List<Move> moves = new ArrayList<>();
+		char side = OthelloBoard.P1;
+		while (board.legalMoves(side) != 0 || board.legalMoves(OthelloBoard.otherPlayer(side)) != 0) {
+			long legal = board.legalMoves(side);
+			if (legal != 0) {
+				for (int n = rng.nextInt(Long.bitCount(legal)); n > 0; n--) legal &= legal - 1;
+				int square = Long.numberOfTrailingZeros(legal);
+				board.makeMove(side, square);
+				moves.add(new Move(BitBoard.row(square), BitBoard.col(square)));
+			}
+			side = OthelloBoard.otherPlayer(side);
+		}
+		return moves;
+	}
+}
@@ -0,0 +1,74 @@
+package com.othello.backend.strategy;
+
+import com.othello.backend.engine.BitBoard;
+import com.othello.backend.engine.Move;
+import com.othello.backend.engine.OthelloBoard;
+import com.othello.backend.engine.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlphaBetaStrategyTest {
+
+	@Test
+	void searchesPositionsWithMoreThan32Moves() {
+		Position position = new Position(BitBoard.WIDTH, 0x18662024348000L, 0x66084212427a00L, OthelloBoard.P1);
+		assertEquals(35, Long.bitCount(position.legalMoves()));
+
+		Move move = new AlphaBetaStrategy(4, 1000).getMove(position, new SearchContext(1));
+		assertTrue((position.legalMoves() & BitBoard.bit(move.getRow(), move.getCol())) != 0);
+	}
+
+	@Test
+	void deepSearchStopsWithinItsTimeBudget() {
+		Position position = ParallelSpeedup.positions(1, 1).get(0);
+		AlphaBetaStrategy strategy = new AlphaBetaStrategy(60, 200, Long.MAX_VALUE, 1, 0, false);
+		SearchContext context = new SearchContext(1);
+
+		long start = System.nanoTime();
+		Move move = strategy.getMove(position, context);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		assertTrue((position.legalMoves() & BitBoard.bit(move.getRow(), move.getCol())) != 0);
+		assertTrue(context.getDepth() < 60, "the budget, not the depth, should end the search");
+		assertTrue(millis <= 200 + 150, "took " + millis + " ms");
+	}
+
+	@Test
+	void findsAForcedWin() {
+		Position position = winningEndgame(new SplittableRandom(7));
+		Move move = new AlphaBetaStrategy(20, 60_000, Long.MAX_VALUE, 1, 0, false).getMove(position, new SearchContext(1));
+		int square = BitBoard.square(move.getRow(), move.getCol());
+
+		// After the move, the solver must find the opponent lost whatever it does
+		long own = position.getOwn(), opp = position.getOpp();
+		long flips = BitBoard.flips(own, opp, square);
+		long mine = own | flips | (1L << square), theirs = opp & ~flips;
+		assertTrue(EndgameSolver.solve(theirs, mine, ~(mine | theirs), Long.MAX_VALUE).getMargin() < 0);
+	}
+
+	// Plays random moves from the start until 10 squares are empty, until the side to move can force a win
+	private static Position winningEndgame(SplittableRandom rng) {
+		while (true) {
+			OthelloBoard board = new OthelloBoard(BitBoard.WIDTH);
+			char turn = OthelloBoard.P1;
+			while (Long.bitCount(board.getEmpty()) > 10) {
+				long moves = board.legalMoves(turn);
+				if (moves == 0) {
+					turn = OthelloBoard.otherPlayer(turn);
+					if (board.legalMoves(turn) == 0) break;
+					continue;
+				}
+				board.makeMove(turn, Playout.nthSquare(moves, rng.nextInt(Long.bitCount(moves))));
+				turn = OthelloBoard.otherPlayer(turn);
+			}
+			Position position = new Position(board, turn);
+			if (position.legalMoves() == 0 || Long.bitCount(board.getEmpty()) != 10) continue;
+			if (EndgameSolver.solve(position.getOwn(), position.getOpp(), position.getEmpty(), Long.MAX_VALUE).getMargin() > 0) {
+				return position;
+			}
+		}
+	}
+}